@@ -0,0 +1,86 @@
+package com.faendir.acra.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Measures {@link Compression} on a typical report against plain deflate without a dictionary.
+ * The compression ratios are printed once per trial. Run with gradle jmh.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CompressionBenchmark {
+    private byte[] report;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() {
+        StringBuilder stacktrace = new StringBuilder("java.lang.IllegalStateException: Could not execute method for android:onClick");
+        for (int i = 0; i < 20; i++) {
+            stacktrace.append("\\n\\tat android.view.View.performClick(View.java:").append(5600 + i).append(')');
+        }
+        stacktrace.append("\\nCaused by: java.lang.NullPointerException: Attempt to invoke virtual method on a null object reference")
+                .append("\\n\\tat android.os.Handler.dispatchMessage(Handler.java:95)\\n\\tat android.os.Looper.loop(Looper.java:154)")
+                .append("\\n\\tat android.app.ActivityThread.main(ActivityThread.java:6119)\\n\\tat java.lang.reflect.Method.invoke(Native Method)")
+                .append("\\n\\tat com.android.internal.os.ZygoteInit.main(ZygoteInit.java:776)");
+        StringBuilder logcat = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            logcat.append("12-11 17:32:").append(i % 60).append(".123  1234  1234 D MainActivity: event ").append(i).append("\\n");
+        }
+        report = ("{\"REPORT_ID\":\"1c2d3e4f-5a6b-7c8d-9e0f-a1b2c3d4e5f6\",\"APP_VERSION_CODE\":42,\"APP_VERSION_NAME\":\"1.2.3\","
+                  + "\"PACKAGE_NAME\":\"com.example.app\",\"PHONE_MODEL\":\"Pixel 2\",\"BRAND\":\"google\",\"PRODUCT\":\"walleye\",\"ANDROID_VERSION\":\"8.1.0\","
+                  + "\"BUILD\":{\"BOARD\":\"walleye\",\"BOOTLOADER\":\"mw8998-002.0069.00\",\"IS_DEBUGGABLE\":false},\"TOTAL_MEM_SIZE\":52776558592,"
+                  + "\"AVAILABLE_MEM_SIZE\":43014230016,\"CUSTOM_DATA\":{},\"STACK_TRACE\":\"" + stacktrace + "\",\"IS_SILENT\":false,"
+                  + "\"USER_CRASH_DATE\":\"2017-12-11T17:32:05.123+01:00\",\"USER_APP_START_DATE\":\"2017-12-11T17:30:00.000+01:00\","
+                  + "\"INSTALLATION_ID\":\"0a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d\",\"USER_EMAIL\":\"N/A\",\"LOGCAT\":\"" + logcat + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        compressed = Compression.compress(report);
+        System.out.printf("%nreport: %d bytes, compressed: %d bytes (%.1f%%), without dictionary: %d bytes (%.1f%%)%n", report.length, compressed.length,
+                100.0 * compressed.length / report.length, deflate().length, 100.0 * deflate().length / report.length);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return Compression.compress(report);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return Compression.decompress(compressed);
+    }
+
+    @Benchmark
+    public byte[] compressWithoutDictionary() {
+        return deflate();
+    }
+
+    private byte[] deflate() {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(report);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(report.length / 4 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
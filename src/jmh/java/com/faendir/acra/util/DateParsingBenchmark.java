@@ -0,0 +1,73 @@
+package com.faendir.acra.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Utils#getDateFromString(String)} to the shared SimpleDateFormat it replaced.
+ * The legacy parser is synchronized, as that is the least it takes to make it correct when reports are parsed concurrently.
+ * Run with gradle jmh.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DateParsingBenchmark {
+    private static final String DATE = "2017-12-11T17:32:05.123+01:00";
+    private final SimpleDateFormat legacyFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.ENGLISH);
+
+    @Benchmark
+    @Threads(1)
+    public Date legacy1() throws ParseException {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date legacy8() throws ParseException {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Date legacy32() throws ParseException {
+        return legacy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Date current1() {
+        return Utils.getDateFromString(DATE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date current8() {
+        return Utils.getDateFromString(DATE);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Date current32() {
+        return Utils.getDateFromString(DATE);
+    }
+
+    private Date legacy() throws ParseException {
+        synchronized (legacyFormat) {
+            return legacyFormat.parse(DATE);
+        }
+    }
+}
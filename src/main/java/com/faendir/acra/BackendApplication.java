@@ -1,7 +1,6 @@
 package com.faendir.acra;
 
 import com.faendir.acra.config.AcraConfiguration;
-import com.faendir.acra.service.multipart.Rfc1341MultipartResolver;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.SecurityAutoConfiguration;
@@ -11,12 +10,21 @@ import org.springframework.boot.web.servlet.support.SpringBootServletInitializer
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.lang.NonNull;
-import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class})
 @PropertySource("classpath:default.properties")
 @PropertySource(value = "file:${user.home}/.acra/application.properties", ignoreResourceNotFound = true)
 @EnableConfigurationProperties(AcraConfiguration.class)
+@EnableScheduling
+@EnableAsync
 public class BackendApplication extends SpringBootServletInitializer {
     public static void main(String[] args) {
         SpringApplication.run(BackendApplication.class, args);
@@ -28,9 +36,44 @@ public class BackendApplication extends SpringBootServletInitializer {
         return builder.sources(BackendApplication.class);
     }
 
+    /**
+     * long running background jobs must not delay short periodic ones, so this uses more than the default single thread
+     */
+    @NonNull
+    @Bean
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("acra-scheduler-");
+        return scheduler;
+    }
+
+    /**
+     * used for {@link org.springframework.scheduling.annotation.Async} methods. Bounded, callers run the task themselves when the queue is full,
+     * which slows down whoever submits too much work instead of dropping it.
+     */
+    @NonNull
+    @Bean
+    public TaskExecutor taskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("acra-async-");
+        return executor;
+    }
+
+    /**
+     * used by {@link com.faendir.acra.util.BufferedDataProvider} to read ahead. Bounded, as this work is dropped when the executor is busy.
+     */
     @NonNull
     @Bean
-    public MultipartResolver multiPartResolver() {
-        return new Rfc1341MultipartResolver();
+    public TaskExecutor dataProviderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("acra-data-");
+        return executor;
     }
 }
@@ -1,7 +1,10 @@
 package com.faendir.acra.config;
 
+import com.faendir.acra.sql.model.ReportRollup;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.List;
+
 /**
  * @author Lukas
  * @since 15.12.2017
@@ -10,6 +13,15 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class AcraConfiguration {
     private User user;
     private int paginationSize;
+    private int countTimeToLive;
+    private Ingest ingest;
+    private BugCache bugCache;
+    private RetraceCache retraceCache;
+    private Rollup rollup;
+    private StatisticsCache statisticsCache;
+    private CredentialCache credentialCache;
+    private ReporterCache reporterCache;
+    private AttachmentStore attachmentStore;
 
     public User getUser() {
         return user;
@@ -27,6 +39,78 @@ public class AcraConfiguration {
         this.paginationSize = paginationSize;
     }
 
+    public int getCountTimeToLive() {
+        return countTimeToLive;
+    }
+
+    public void setCountTimeToLive(int countTimeToLive) {
+        this.countTimeToLive = countTimeToLive;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public void setIngest(Ingest ingest) {
+        this.ingest = ingest;
+    }
+
+    public BugCache getBugCache() {
+        return bugCache;
+    }
+
+    public void setBugCache(BugCache bugCache) {
+        this.bugCache = bugCache;
+    }
+
+    public RetraceCache getRetraceCache() {
+        return retraceCache;
+    }
+
+    public void setRetraceCache(RetraceCache retraceCache) {
+        this.retraceCache = retraceCache;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public void setRollup(Rollup rollup) {
+        this.rollup = rollup;
+    }
+
+    public StatisticsCache getStatisticsCache() {
+        return statisticsCache;
+    }
+
+    public void setStatisticsCache(StatisticsCache statisticsCache) {
+        this.statisticsCache = statisticsCache;
+    }
+
+    public CredentialCache getCredentialCache() {
+        return credentialCache;
+    }
+
+    public void setCredentialCache(CredentialCache credentialCache) {
+        this.credentialCache = credentialCache;
+    }
+
+    public ReporterCache getReporterCache() {
+        return reporterCache;
+    }
+
+    public void setReporterCache(ReporterCache reporterCache) {
+        this.reporterCache = reporterCache;
+    }
+
+    public AttachmentStore getAttachmentStore() {
+        return attachmentStore;
+    }
+
+    public void setAttachmentStore(AttachmentStore attachmentStore) {
+        this.attachmentStore = attachmentStore;
+    }
+
     public static class User {
         private String name;
         private String password;
@@ -47,4 +131,202 @@ public class AcraConfiguration {
             this.password = password;
         }
     }
+
+    public static class Ingest {
+        private int queueCapacity;
+        /**
+         * bytes the queued reports may hold in memory
+         */
+        private int queueMemory;
+        private int batchSize;
+        private long flushInterval;
+        private int retryAfter;
+        /**
+         * bytes a single part of a multipart report may have
+         */
+        private long maxPartSize;
+        /**
+         * bytes a multipart report may have in total
+         */
+        private long maxRequestSize;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getQueueMemory() {
+            return queueMemory;
+        }
+
+        public void setQueueMemory(int queueMemory) {
+            this.queueMemory = queueMemory;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(int retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public long getMaxPartSize() {
+            return maxPartSize;
+        }
+
+        public void setMaxPartSize(long maxPartSize) {
+            this.maxPartSize = maxPartSize;
+        }
+
+        public long getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(long maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+    }
+
+    public static class BugCache {
+        private int size;
+        private long flushInterval;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    public static class RetraceCache {
+        /**
+         * summed size of the cached mapping indices in bytes. They are stored off-heap, so this must fit into -XX:MaxDirectMemorySize
+         */
+        private long maxWeight;
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    public static class Rollup {
+        /**
+         * dimensions to count reports by. Counts of removed dimensions are dropped, added dimensions are computed on the next start
+         */
+        private List<ReportRollup.Dimension> dimensions;
+
+        public List<ReportRollup.Dimension> getDimensions() {
+            return dimensions;
+        }
+
+        public void setDimensions(List<ReportRollup.Dimension> dimensions) {
+            this.dimensions = dimensions;
+        }
+    }
+
+    public static class StatisticsCache {
+        private int size;
+        /**
+         * seconds after which cached statistics are recomputed even if no reports were added
+         */
+        private int timeToLive;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(int timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class CredentialCache {
+        private int size;
+        /**
+         * seconds after which reporter credentials are verified again
+         */
+        private int timeToLive;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(int timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class ReporterCache {
+        private int size;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class AttachmentStore {
+        private String directory;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.faendir.acra.security;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.sql.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers successfully verified reporter credentials for a short time, so repeated reports skip the user query and BCrypt.
+ * Only an HMAC of the password with a key which never leaves this process is kept.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class CredentialCache {
+    private static final String ALGORITHM = "HmacSHA256";
+    @NonNull private final SecretKeySpec key;
+    @NonNull private final Cache<String, Entry> cache;
+
+    @Autowired
+    public CredentialCache(@NonNull SecureRandom secureRandom, @NonNull AcraConfiguration configuration, @NonNull MeterRegistry meterRegistry) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        this.key = new SecretKeySpec(bytes, ALGORITHM);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuration.getCredentialCache().getSize())
+                .expireAfterWrite(configuration.getCredentialCache().getTimeToLive(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credentials");
+    }
+
+    /**
+     * @return an authentication if the credentials have been verified recently, null if they have to be checked
+     */
+    @Nullable
+    public UsernamePasswordAuthenticationToken authenticate(@NonNull String username, @NonNull String password) {
+        Entry entry = cache.getIfPresent(username);
+        if (entry != null && MessageDigest.isEqual(entry.digest, digest(password))) {
+            return new UsernamePasswordAuthenticationToken(username, entry.passwordHash, entry.authorities);
+        }
+        return null;
+    }
+
+    /**
+     * @param password the password the user has just been verified with
+     */
+    public void put(@NonNull User user, @NonNull String password) {
+        cache.put(user.getUsername(), new Entry(digest(password), user.getPassword(), user.getAuthorities()));
+    }
+
+    /**
+     * Has to be called when the user is deleted, replaced or its password changes
+     */
+    public void invalidate(@NonNull String username) {
+        cache.invalidate(username);
+    }
+
+    @NonNull
+    private byte[] digest(@NonNull String password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static class Entry {
+        private final byte[] digest;
+        private final String passwordHash;
+        private final List<GrantedAuthority> authorities;
+
+        Entry(@NonNull byte[] digest, @NonNull String passwordHash, @NonNull Collection<? extends GrantedAuthority> authorities) {
+            this.digest = digest;
+            this.passwordHash = passwordHash;
+            this.authorities = new ArrayList<>(authorities);
+        }
+    }
+}
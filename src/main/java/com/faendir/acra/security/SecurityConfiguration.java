@@ -39,10 +39,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     }
 
     @NonNull private final UserManager userManager;
+    @NonNull private final CredentialCache credentialCache;
 
     @Autowired
-    public SecurityConfiguration(@NonNull UserManager userManager) {
+    public SecurityConfiguration(@NonNull UserManager userManager, @NonNull CredentialCache credentialCache) {
         this.userManager = userManager;
+        this.credentialCache = credentialCache;
     }
 
     @Override
@@ -52,11 +54,20 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             @Override
             public Authentication authenticate(Authentication authentication) throws AuthenticationException {
                 if (authentication instanceof UsernamePasswordAuthenticationToken) {
+                    String password = (String) authentication.getCredentials();
+                    Authentication cached = credentialCache.authenticate(authentication.getName(), password);
+                    if (cached != null) {
+                        return cached;
+                    }
                     User user = userManager.getUser(authentication.getName());
                     if (user == null) {
                         throw new UsernameNotFoundException("Username " + authentication.getName() + " not found");
                     }
-                    if (userManager.checkPassword(user, (String) authentication.getCredentials())) {
+                    if (userManager.checkPassword(user, password)) {
+                        //reporters authenticate with every report, users only once per session
+                        if (user.getRoles().contains(UserManager.ROLE_REPORTER)) {
+                            credentialCache.put(user, password);
+                        }
                         return new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword(), user.getAuthorities());
                     }
                     throw new BadCredentialsException("Password mismatch for user " + user.getUsername());
@@ -1,36 +1,53 @@
 package com.faendir.acra.security;
 
-import com.vaadin.server.VaadinService;
 import com.vaadin.server.VaadinSession;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.context.SecurityContextImpl;
 
 /**
  * A custom {@link SecurityContextHolderStrategy} that stores the {@link SecurityContext} in the Vaadin Session.
+ * Requests without a Vaadin session, like reports sent to the REST endpoints, use a context bound to the thread, which is cleared by the security filter chain
+ * at the end of the request.
  */
 @SuppressWarnings("WeakerAccess")
 public class VaadinSessionSecurityContextHolderStrategy implements SecurityContextHolderStrategy {
+    private static final ThreadLocal<SecurityContext> THREAD_CONTEXT = new ThreadLocal<>();
+
     @Override
     public void clearContext() {
-        getSession().setAttribute(SecurityContext.class, null);
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session != null) {
+            session.setAttribute(SecurityContext.class, null);
+        } else {
+            THREAD_CONTEXT.remove();
+        }
     }
 
     @Override
     public SecurityContext getContext() {
-        VaadinSession session = getSession();
-        SecurityContext context = session.getAttribute(SecurityContext.class);
+        VaadinSession session = VaadinSession.getCurrent();
+        SecurityContext context = session != null ? session.getAttribute(SecurityContext.class) : THREAD_CONTEXT.get();
         if (context == null) {
             context = createEmptyContext();
-            session.setAttribute(SecurityContext.class, context);
+            setContext(session, context);
         }
         return context;
     }
 
     @Override
     public void setContext(SecurityContext context) {
-        getSession().setAttribute(SecurityContext.class, context);
+        setContext(VaadinSession.getCurrent(), context);
+    }
+
+    private static void setContext(@Nullable VaadinSession session, SecurityContext context) {
+        if (session != null) {
+            session.setAttribute(SecurityContext.class, context);
+        } else {
+            THREAD_CONTEXT.set(context);
+        }
     }
 
     @NonNull
@@ -38,13 +55,4 @@ public class VaadinSessionSecurityContextHolderStrategy implements SecurityConte
     public SecurityContext createEmptyContext() {
         return new SecurityContextImpl();
     }
-
-    private static VaadinSession getSession() {
-        VaadinSession session = VaadinSession.getCurrent();
-        if (session == null) {
-            session = new VaadinSession(VaadinService.getCurrent());
-            VaadinSession.setCurrent(session);
-        }
-        return session;
-    }
 }
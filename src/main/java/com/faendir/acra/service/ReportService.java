@@ -1,42 +1,36 @@
 package com.faendir.acra.service;
 
-import com.faendir.acra.sql.data.AppRepository;
-import com.faendir.acra.sql.data.AttachmentRepository;
-import com.faendir.acra.sql.data.BugRepository;
-import com.faendir.acra.sql.data.ReportRepository;
-import com.faendir.acra.sql.model.App;
-import com.faendir.acra.sql.model.Attachment;
-import com.faendir.acra.sql.model.Bug;
-import com.faendir.acra.sql.model.Report;
-import com.faendir.acra.util.Utils;
-import org.acra.ReportField;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.hibernate.Hibernate;
-import org.hibernate.SessionFactory;
-import org.json.JSONObject;
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.service.ingest.PendingAttachment;
+import com.faendir.acra.service.ingest.PendingReport;
+import com.faendir.acra.service.ingest.ReportIngestor;
+import com.faendir.acra.service.ingest.ReporterCache;
+import com.faendir.acra.util.ReportInfo;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.Rfc1341ServletFileUpload;
+import org.apache.commons.fileupload.servlet.ServletRequestContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.util.MultiValueMap;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.multipart.MultipartHttpServletRequest;
 
-import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * @author Lukas
@@ -44,73 +38,91 @@ import java.util.Optional;
  */
 @RestController
 public class ReportService {
-    @NonNull private final AppRepository appRepository;
-    @NonNull private final BugRepository bugRepository;
-    @NonNull private final ReportRepository reportRepository;
-    @NonNull private final AttachmentRepository attachmentRepository;
-    @NonNull private final SessionFactory sessionFactory;
-    @NonNull private final Log log;
+    @NonNull private final ReporterCache reporterCache;
+    @NonNull private final ReportIngestor ingestor;
+    private final int retryAfter;
+    private final long maxPartSize;
+    private final long maxRequestSize;
 
     @Autowired
-    public ReportService(@NonNull AppRepository appRepository, @NonNull BugRepository bugRepository, @NonNull ReportRepository reportRepository,
-            @NonNull AttachmentRepository attachmentRepository, @NonNull EntityManagerFactory entityManagerFactory) {
-        this.appRepository = appRepository;
-        this.bugRepository = bugRepository;
-        this.reportRepository = reportRepository;
-        this.attachmentRepository = attachmentRepository;
-        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
-        this.log = LogFactory.getLog(getClass());
+    public ReportService(@NonNull ReporterCache reporterCache, @NonNull ReportIngestor ingestor, @NonNull AcraConfiguration configuration) {
+        this.reporterCache = reporterCache;
+        this.ingestor = ingestor;
+        this.retryAfter = configuration.getIngest().getRetryAfter();
+        this.maxPartSize = configuration.getIngest().getMaxPartSize();
+        this.maxRequestSize = configuration.getIngest().getMaxRequestSize();
     }
 
     @PreAuthorize("hasRole('REPORTER')")
     @RequestMapping(value = "/report", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public void report(@NonNull @RequestBody String content, @NonNull Principal principal) {
-        if (!"".equals(content)) {
-            Optional<App> app = appRepository.findByReporterUsername(principal.getName());
-            app.ifPresent(a -> newReport(a, content, Collections.emptyList()));
+    public ResponseEntity report(@NonNull @RequestBody byte[] content, @NonNull Principal principal) {
+        if (content.length != 0) {
+            return enqueue(principal, content, Collections.emptyList());
         }
+        return ResponseEntity.ok().build();
     }
 
+    /**
+     * Reads the parts as they arrive instead of buffering the whole request, attachments are spilled to disk if they are large
+     */
     @PreAuthorize("hasRole('REPORTER')")
     @RequestMapping(value = "/report", consumes = "multipart/mixed")
-    public ResponseEntity report(@NonNull MultipartHttpServletRequest request, @NonNull Principal principal) throws IOException {
-        MultiValueMap<String, MultipartFile> fileMap = request.getMultiFileMap();
-        List<MultipartFile> files = fileMap.get(null);
-        String content = null;
-        List<MultipartFile> attachments = new ArrayList<>();
-        for (MultipartFile file : files) {
-            String filename = file.getOriginalFilename();
-            if (filename.isEmpty()) {
-                content = StreamUtils.copyToString(file.getInputStream(), StandardCharsets.UTF_8);
-            } else {
-                attachments.add(file);
+    public ResponseEntity report(@NonNull HttpServletRequest request, @NonNull Principal principal) throws IOException {
+        Rfc1341ServletFileUpload upload = new Rfc1341ServletFileUpload();
+        upload.setFileSizeMax(maxPartSize);
+        upload.setSizeMax(maxRequestSize);
+        byte[] content = null;
+        List<PendingAttachment> attachments = new ArrayList<>();
+        try {
+            FileItemIterator iterator = upload.getItemIterator(new ServletRequestContext(request));
+            while (iterator.hasNext()) {
+                FileItemStream item = iterator.next();
+                try (InputStream in = item.openStream()) {
+                    String filename = item.getName();
+                    if (filename == null || filename.isEmpty()) {
+                        content = StreamUtils.copyToByteArray(in);
+                    } else {
+                        attachments.add(PendingAttachment.read(filename, in));
+                    }
+                }
             }
+        } catch (FileUploadException | FileUploadBase.FileUploadIOException e) {
+            attachments.forEach(PendingAttachment::delete);
+            Throwable cause = e instanceof FileUploadBase.FileUploadIOException ? e.getCause() : e;
+            boolean tooLarge = cause instanceof FileUploadBase.SizeLimitExceededException || cause instanceof FileUploadBase.FileSizeLimitExceededException;
+            return ResponseEntity.status(tooLarge ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.BAD_REQUEST).build();
+        } catch (IOException | RuntimeException e) {
+            attachments.forEach(PendingAttachment::delete);
+            throw e;
         }
         if (content != null) {
-            Optional<App> app = appRepository.findByReporterUsername(principal.getName());
-            String finalContent = content;
-            app.ifPresent(a -> newReport(a, finalContent, attachments));
-            return ResponseEntity.ok().build();
+            return enqueue(principal, content, attachments);
         } else {
+            attachments.forEach(PendingAttachment::delete);
             return ResponseEntity.badRequest().build();
         }
     }
 
-    private void newReport(@NonNull App app, @NonNull String content, @NonNull List<MultipartFile> attachments) {
-        JSONObject jsonObject = new JSONObject(content);
-        String stacktrace = jsonObject.optString(ReportField.STACK_TRACE.name());
-        Date crashDate = Utils.getDateFromString(jsonObject.optString(ReportField.USER_CRASH_DATE.name()));
-        Bug bug = bugRepository.findBugByAppAndStacktrace(app, stacktrace)
-                .orElseGet(() -> new Bug(app, stacktrace, jsonObject.optInt(ReportField.APP_VERSION_CODE.name()), crashDate));
-        bug.setLastReport(crashDate);
-        Report report = reportRepository.save(new Report(bug, content));
-        attachments.forEach(multipartFile -> {
-            try {
-                attachmentRepository.save(new Attachment(report, multipartFile.getName(),
-                        Hibernate.getLobCreator(sessionFactory.getCurrentSession()).createBlob(multipartFile.getInputStream(), multipartFile.getSize())));
-            } catch (IOException e) {
-                log.warn("Failed to load attachment with name " + multipartFile.getName(), e);
-            }
-        });
+    /**
+     * Extracts the indexed fields and hands the report over to the {@link ReportIngestor}. If its queue is full or it is shutting down,
+     * the client is asked to retry later. The attachments are deleted if the report is not accepted.
+     */
+    @NonNull
+    private ResponseEntity enqueue(@NonNull Principal principal, @NonNull byte[] content, @NonNull List<PendingAttachment> attachments) {
+        ReportInfo info;
+        try {
+            info = ReportInfo.parse(content);
+        } catch (IOException e) {
+            attachments.forEach(PendingAttachment::delete);
+            return ResponseEntity.badRequest().build();
+        }
+        Integer appId = reporterCache.getAppId(principal.getName());
+        if (appId == null) {
+            attachments.forEach(PendingAttachment::delete);
+        } else if (!ingestor.offer(new PendingReport(appId, info, content, attachments))) {
+            attachments.forEach(PendingAttachment::delete);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter)).build();
+        }
+        return ResponseEntity.ok().build();
     }
 }
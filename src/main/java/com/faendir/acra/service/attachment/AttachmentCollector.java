@@ -0,0 +1,80 @@
+package com.faendir.acra.service.attachment;
+
+import com.faendir.acra.sql.data.AttachmentRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Deletes stored content which is no longer referenced by any attachment, because its reports were deleted or the transaction saving it was rolled back.
+ * Recently saved content is kept, as the transaction referencing it may not have committed yet.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class AttachmentCollector {
+    private static final int BATCH_SIZE = 1000;
+    private static final long GRACE_PERIOD = TimeUnit.HOURS.toMillis(1);
+    @NonNull private final AttachmentStore attachmentStore;
+    @NonNull private final AttachmentRepository attachmentRepository;
+    @NonNull private final Log log;
+
+    @Autowired
+    public AttachmentCollector(@NonNull AttachmentStore attachmentStore, @NonNull AttachmentRepository attachmentRepository) {
+        this.attachmentStore = attachmentStore;
+        this.attachmentRepository = attachmentRepository;
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @Scheduled(initialDelay = 600000, fixedDelay = 86400000)
+    public void collect() {
+        int count = 0;
+        Instant before = Instant.now().minusMillis(GRACE_PERIOD);
+        try (Stream<String> hashes = attachmentStore.listBefore(before)) {
+            Iterator<String> iterator = hashes.iterator();
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == BATCH_SIZE || !iterator.hasNext()) {
+                    count += deleteUnused(batch, before);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to delete unused attachments", e);
+        }
+        if (count > 0) {
+            log.info("Deleted " + count + " unused attachments");
+        }
+    }
+
+    /**
+     * Content saved again after it was listed may be referenced by an attachment which was not committed when the references were queried,
+     * so the store checks the time again before deleting
+     */
+    private int deleteUnused(@NonNull List<String> hashes, @NonNull Instant before) throws IOException {
+        Set<String> used = new HashSet<>(attachmentRepository.findAllHashesIn(hashes));
+        int count = 0;
+        for (String hash : hashes) {
+            if (!used.contains(hash) && attachmentStore.delete(hash, before)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
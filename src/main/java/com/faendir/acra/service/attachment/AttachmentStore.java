@@ -0,0 +1,43 @@
+package com.faendir.acra.service.attachment;
+
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Stores attachment content outside of the database. Content is addressed by its SHA-256 hash, so identical attachments are stored once.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public interface AttachmentStore {
+    /**
+     * @return the hash the content can be read with
+     */
+    @NonNull
+    String save(@NonNull InputStream content) throws IOException;
+
+    /**
+     * Writes the content to the channel
+     *
+     * @return the number of bytes written
+     */
+    long transferTo(@NonNull String hash, @NonNull WritableByteChannel target) throws IOException;
+
+    /**
+     * @return the hashes of all content saved before the given time, the stream has to be closed
+     */
+    @NonNull
+    Stream<String> listBefore(@NonNull Instant before) throws IOException;
+
+    /**
+     * Deletes the content unless it has been saved again since the given time
+     *
+     * @return if the content was deleted
+     */
+    boolean delete(@NonNull String hash, @NonNull Instant before) throws IOException;
+}
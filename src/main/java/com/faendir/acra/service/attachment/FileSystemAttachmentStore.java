@@ -0,0 +1,154 @@
+package com.faendir.acra.service.attachment;
+
+import com.faendir.acra.config.AcraConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps attachments as files named by their hash, spread over two levels of directories by the first characters of the hash.
+ * Content is written to a temporary file first and moved in place when complete, so readers never see partial files.
+ * Moving content in place and deleting it are serialized per hash, so a delete never removes content which has just been saved again.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class FileSystemAttachmentStore implements AttachmentStore {
+    private static final String ALGORITHM = "SHA-256";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 256;
+    @NonNull private final Path root;
+    @NonNull private final Object[] locks;
+
+    @Autowired
+    public FileSystemAttachmentStore(@NonNull AcraConfiguration configuration) throws IOException {
+        this.root = Paths.get(configuration.getAttachmentStore().getDirectory());
+        Files.createDirectories(root);
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @NonNull
+    @Override
+    public String save(@NonNull InputStream content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+        Path temp = Files.createTempFile(root, "pending-", null);
+        try {
+            try (ReadableByteChannel in = Channels.newChannel(content); FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                //the database will reference the file once this returns
+                out.force(true);
+            }
+            String hash = toHex(digest.digest());
+            Path target = getPath(hash);
+            synchronized (getLock(hash)) {
+                Files.createDirectories(target.getParent());
+                //replacing identical content gives it a fresh modification time, so it is not collected before the new reference is committed
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return hash;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public long transferTo(@NonNull String hash, @NonNull WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(getPath(hash), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    @NonNull
+    @Override
+    public Stream<String> listBefore(@NonNull Instant before) throws IOException {
+        return Files.walk(root, 3).filter(path -> HASH.matcher(path.getFileName().toString()).matches()).filter(path -> {
+            try {
+                return Files.getLastModifiedTime(path).toInstant().isBefore(before);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).map(path -> path.getFileName().toString());
+    }
+
+    @Override
+    public boolean delete(@NonNull String hash, @NonNull Instant before) throws IOException {
+        Path path = getPath(hash);
+        synchronized (getLock(hash)) {
+            try {
+                if (Files.getLastModifiedTime(path).toInstant().isBefore(before)) {
+                    Files.delete(path);
+                    return true;
+                }
+            } catch (NoSuchFileException ignored) {
+                //already gone
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private Object getLock(@NonNull String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16)];
+    }
+
+    @NonNull
+    private Path getPath(@NonNull String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    @NonNull
+    private static String toHex(@NonNull byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package com.faendir.acra.service.data;
+
+import com.faendir.acra.security.CredentialCache;
+import com.faendir.acra.service.ingest.BugCache;
+import com.faendir.acra.service.ingest.ReporterCache;
+import com.faendir.acra.service.retrace.RetraceService;
+import com.faendir.acra.service.statistics.StatisticsService;
+import com.faendir.acra.sql.data.AppRepository;
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.data.ProguardMappingRepository;
+import com.faendir.acra.sql.data.ReportRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.Bug;
+import com.faendir.acra.sql.model.ProguardMapping;
+import com.faendir.acra.sql.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+/**
+ * Modifications of stored data which have to keep caches in sync
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class DataManager {
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final ProguardMappingRepository mappingRepository;
+    @NonNull private final ReportRepository reportRepository;
+    @NonNull private final RollupManager rollupManager;
+    @NonNull private final BugCache bugCache;
+    @NonNull private final RetraceService retraceService;
+    @NonNull private final StatisticsService statisticsService;
+    @NonNull private final CredentialCache credentialCache;
+    @NonNull private final ReporterCache reporterCache;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public DataManager(@NonNull AppRepository appRepository, @NonNull BugRepository bugRepository, @NonNull ProguardMappingRepository mappingRepository,
+            @NonNull ReportRepository reportRepository, @NonNull RollupManager rollupManager, @NonNull BugCache bugCache, @NonNull RetraceService retraceService,
+            @NonNull StatisticsService statisticsService, @NonNull CredentialCache credentialCache, @NonNull ReporterCache reporterCache,
+            @NonNull PlatformTransactionManager transactionManager) {
+        this.appRepository = appRepository;
+        this.bugRepository = bugRepository;
+        this.mappingRepository = mappingRepository;
+        this.reportRepository = reportRepository;
+        this.rollupManager = rollupManager;
+        this.bugCache = bugCache;
+        this.retraceService = retraceService;
+        this.statisticsService = statisticsService;
+        this.credentialCache = credentialCache;
+        this.reporterCache = reporterCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Stores a mapping file, replacing any previous mapping of the same version.
+     * The index is compiled from a stream of the file. The text is read completely to store it, as MySQL Connector/J buffers streamed parameters anyway.
+     *
+     * @throws IllegalArgumentException if the file is not a mapping file
+     */
+    public void saveMapping(@NonNull App app, int versionCode, @NonNull Path file) throws IOException {
+        byte[] index;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            index = RetraceService.compile(reader);
+        }
+        String mappings = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        transactionTemplate.execute(status -> {
+            Integer revision = mappingRepository.findRevision(app.getId(), versionCode);
+            if (revision != null) {
+                //a bulk delete, so the old text is not loaded
+                mappingRepository.deleteByKey(app.getId(), versionCode);
+            }
+            entityManager.persist(new ProguardMapping(app, versionCode, mappings, index, revision == null ? 1 : revision + 1));
+            return null;
+        });
+        retraceService.invalidate(app, versionCode);
+        retraceService.retraceBugs(app.getId(), versionCode);
+    }
+
+    public void setSolved(@NonNull Bug bug, boolean solved) {
+        transactionTemplate.execute(status -> {
+            if (bugRepository.updateSolved(bug.getId(), solved) > 0) {
+                appRepository.addOpenBugCount(bug.getApp().getId(), solved ? -1 : 1);
+            }
+            return null;
+        });
+        bug.setSolved(solved);
+    }
+
+    public void deleteReport(@NonNull String id) {
+        Integer appId = transactionTemplate.execute(status -> reportRepository.findById(id).map(report -> {
+            reportRepository.delete(report);
+            RollupManager.Batch counts = rollupManager.batch();
+            counts.add(report.getBug().getApp().getId(), report.getBug().getId(), report, -1);
+            counts.flush();
+            return report.getBug().getApp().getId();
+        }).orElse(null));
+        if (appId != null) {
+            statisticsService.invalidate(appId);
+        }
+    }
+
+    /**
+     * Deletes all reports of the app older than the given date
+     */
+    public void purgeReports(@NonNull App app, @NonNull Date before) {
+        transactionTemplate.execute(status -> {
+            rollupManager.subtractBefore(app, before);
+            return reportRepository.deleteAllByBugAppAndDateBefore(app, before);
+        });
+        statisticsService.invalidate(app.getId());
+    }
+
+    /**
+     * Replaces the reporter of the app, the previous reporter can't send reports anymore
+     */
+    public void setReporter(@NonNull App app, @NonNull User reporter) {
+        String previous = app.getReporter().getUsername();
+        app.setReporter(reporter);
+        appRepository.save(app);
+        credentialCache.invalidate(previous);
+        reporterCache.invalidate(previous);
+    }
+
+    public void deleteApp(@NonNull App app) {
+        appRepository.delete(app);
+        bugCache.invalidate(app);
+        statisticsService.invalidate(app.getId());
+        credentialCache.invalidate(app.getReporter().getUsername());
+        reporterCache.invalidate(app.getReporter().getUsername());
+    }
+}
@@ -0,0 +1,252 @@
+package com.faendir.acra.service.data;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.sql.data.AppRepository;
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.data.DailyReportCountRepository;
+import com.faendir.acra.sql.data.HourlyReportCountRepository;
+import com.faendir.acra.sql.data.ReportRollupRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.Report;
+import com.faendir.acra.sql.model.ReportRollup;
+import com.faendir.acra.sql.util.CountResult;
+import com.faendir.acra.util.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the report counters per app, hour, day, bug and {@link ReportRollup.Dimension}, so statistics never have to group the report table.
+ * All modifying methods have to be called in the transaction which adds or removes the reports.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class RollupManager {
+    /**
+     * hourly counts are only needed for the last 24 hours, older ones are deleted
+     */
+    public static final long HOURLY_RETENTION = TimeUnit.HOURS.toMillis(48);
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final HourlyReportCountRepository hourlyReportCountRepository;
+    @NonNull private final DailyReportCountRepository dailyReportCountRepository;
+    @NonNull private final ReportRollupRepository rollupRepository;
+    @NonNull private final List<ReportRollup.Dimension> dimensions;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public RollupManager(@NonNull AppRepository appRepository, @NonNull BugRepository bugRepository, @NonNull HourlyReportCountRepository hourlyReportCountRepository,
+            @NonNull DailyReportCountRepository dailyReportCountRepository, @NonNull ReportRollupRepository rollupRepository, @NonNull AcraConfiguration configuration) {
+        this.appRepository = appRepository;
+        this.bugRepository = bugRepository;
+        this.hourlyReportCountRepository = hourlyReportCountRepository;
+        this.dailyReportCountRepository = dailyReportCountRepository;
+        this.rollupRepository = rollupRepository;
+        this.dimensions = configuration.getRollup().getDimensions();
+    }
+
+    public boolean isEnabled(@NonNull ReportRollup.Dimension dimension) {
+        return dimensions.contains(dimension);
+    }
+
+    @NonNull
+    public List<ReportRollup.Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @return the keys with the most reports in descending order of their count, or an empty list if the dimension is not enabled
+     */
+    @NonNull
+    public List<CountResult<String>> getTop(@NonNull App app, @NonNull ReportRollup.Dimension dimension, int limit) {
+        return rollupRepository.findTop(app, dimension, PageRequest.of(0, limit));
+    }
+
+    public long getTotal(@NonNull App app, @NonNull ReportRollup.Dimension dimension) {
+        Long total = rollupRepository.sumAll(app, dimension);
+        return total == null ? 0 : total;
+    }
+
+    @NonNull
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Subtracts all reports of the app older than the given date. Has to be called before they are deleted.
+     */
+    public void subtractBefore(@NonNull App app, @NonNull Date before) {
+        entityManager.createNativeQuery("update app set report_count = report_count - (select count(*) from report join bug on report.bug_id = bug.id "
+                                        + "where bug.app_id = ?1 and report.date < ?2) where id = ?1")
+                .setParameter(1, app.getId())
+                .setParameter(2, before)
+                .executeUpdate();
+        entityManager.createNativeQuery("insert into hourly_report_count (app_id, hour, report_count) select ?1, date_format(report.date, '%Y-%m-%d %H:00:00'), -count(*) "
+                                        + "from report join bug on report.bug_id = bug.id where bug.app_id = ?1 and report.date < ?2 and report.date >= ?3 "
+                                        + "group by date_format(report.date, '%Y-%m-%d %H:00:00') "
+                                        + "on duplicate key update hourly_report_count.report_count = hourly_report_count.report_count + values(report_count)")
+                .setParameter(1, app.getId())
+                .setParameter(2, before)
+                .setParameter(3, getHourlyRetentionStart())
+                .executeUpdate();
+        entityManager.createNativeQuery("insert into daily_report_count (app_id, day, report_count) select ?1, date(report.date), -count(*) from report "
+                                        + "join bug on report.bug_id = bug.id where bug.app_id = ?1 and report.date < ?2 group by date(report.date) "
+                                        + "on duplicate key update daily_report_count.report_count = daily_report_count.report_count + values(report_count)")
+                .setParameter(1, app.getId())
+                .setParameter(2, before)
+                .executeUpdate();
+        entityManager.createNativeQuery("update bug join (select report.bug_id, count(*) as purged from report join bug on report.bug_id = bug.id "
+                                        + "where bug.app_id = ?1 and report.date < ?2 group by report.bug_id) counts on bug.id = counts.bug_id "
+                                        + "set bug.report_count = bug.report_count - counts.purged")
+                .setParameter(1, app.getId())
+                .setParameter(2, before)
+                .executeUpdate();
+        for (ReportRollup.Dimension dimension : dimensions) {
+            entityManager.createNativeQuery(rollupQuery(dimension, "-count(*)", "where bug.app_id = ?1 and report.date < ?2"))
+                    .setParameter(1, app.getId())
+                    .setParameter(2, before)
+                    .executeUpdate();
+        }
+        rollupRepository.deleteAllEmpty(app);
+    }
+
+    /**
+     * Computes the hourly counts within the retention period from all stored reports. Must not run concurrently with report ingestion.
+     *
+     * @return the number of hours
+     */
+    public int computeHourly() {
+        return entityManager.createNativeQuery("insert into hourly_report_count (app_id, hour, report_count) select bug.app_id, date_format(report.date, '%Y-%m-%d %H:00:00'), "
+                                               + "count(*) from report join bug on report.bug_id = bug.id where report.date >= ?1 "
+                                               + "group by bug.app_id, date_format(report.date, '%Y-%m-%d %H:00:00')")
+                .setParameter(1, getHourlyRetentionStart())
+                .executeUpdate();
+    }
+
+    @Scheduled(initialDelay = 60000, fixedDelay = 3600000)
+    public void pruneHourly() {
+        hourlyReportCountRepository.deleteAllByHourBefore(getHourlyRetentionStart());
+    }
+
+    @NonNull
+    private static Date getHourlyRetentionStart() {
+        return Utils.getHour(new Date(System.currentTimeMillis() - HOURLY_RETENTION));
+    }
+
+    /**
+     * Computes the counts of a dimension from all stored reports. Must not run concurrently with report ingestion.
+     *
+     * @return the number of keys
+     */
+    public int compute(@NonNull ReportRollup.Dimension dimension) {
+        return entityManager.createNativeQuery(rollupQuery(dimension, "count(*)", "")).executeUpdate();
+    }
+
+    @NonNull
+    private static String rollupQuery(@NonNull ReportRollup.Dimension dimension, @NonNull String count, @NonNull String where) {
+        String key = dimension.getSqlExpression();
+        return "insert into report_rollup (app_id, dimension, rollup_key, report_count) select bug.app_id, '" + dimension.name() + "', " + key + ", " + count
+               + " from report join bug on report.bug_id = bug.id " + where + " group by bug.app_id, " + key
+               + " on duplicate key update report_rollup.report_count = report_rollup.report_count + values(report_count)";
+    }
+
+    /**
+     * Collects counter changes of several reports, so each counter is written once
+     */
+    public class Batch {
+        private final Map<Key, Long> counts = new HashMap<>();
+        private final Map<Key, Long> hourlyCounts = new HashMap<>();
+        private final Map<Integer, Long> appCounts = new HashMap<>();
+        private final Map<Integer, Long> bugCounts = new HashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * @param bugId the id of the bug of the report, passed separately as the bug may be an uninitialized proxy
+         * @param delta 1 for a stored report, -1 for a deleted one
+         */
+        public void add(int appId, int bugId, @NonNull Report report, long delta) {
+            appCounts.merge(appId, delta, Long::sum);
+            hourlyCounts.merge(new Key(appId, null, Utils.getHour(report.getDate())), delta, Long::sum);
+            bugCounts.merge(bugId, delta, Long::sum);
+            counts.merge(new Key(appId, null, Utils.getDay(report.getDate())), delta, Long::sum);
+            for (ReportRollup.Dimension dimension : dimensions) {
+                counts.merge(new Key(appId, dimension, dimension.getKey(bugId, report)), delta, Long::sum);
+            }
+        }
+
+        public void flush() {
+            appCounts.forEach((appId, count) -> {
+                if (count != 0) {
+                    appRepository.addReportCount(appId, count);
+                }
+            });
+            appCounts.clear();
+            hourlyCounts.forEach((key, count) -> {
+                //reports older than the retention period would only create rows which get pruned anyway
+                if (count != 0 && !((Date) key.value).before(getHourlyRetentionStart())) {
+                    hourlyReportCountRepository.add(key.appId, (Date) key.value, count);
+                }
+            });
+            hourlyCounts.clear();
+            bugCounts.forEach((bugId, count) -> {
+                if (count != 0) {
+                    bugRepository.addReportCount(bugId, count);
+                }
+            });
+            bugCounts.clear();
+            counts.forEach((key, count) -> {
+                if (count != 0) {
+                    if (key.dimension == null) {
+                        dailyReportCountRepository.add(key.appId, (Date) key.value, count);
+                    } else {
+                        rollupRepository.add(key.appId, key.dimension.name(), (String) key.value, count);
+                    }
+                }
+            });
+            counts.clear();
+        }
+    }
+
+    /**
+     * A daily or hourly count if dimension is null, a rollup otherwise
+     */
+    private static class Key {
+        private final int appId;
+        private final ReportRollup.Dimension dimension;
+        private final Object value;
+
+        Key(int appId, ReportRollup.Dimension dimension, @NonNull Object value) {
+            this.appId = appId;
+            this.dimension = dimension;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return appId == key.appId && dimension == key.dimension && Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appId, dimension, value);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.faendir.acra.service.ingest;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.service.retrace.RetraceService;
+import com.faendir.acra.sql.data.AppRepository;
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.Bug;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps (app, fingerprint) to bug ids, so the ingestion path does not have to look up bugs for every report.
+ * New bugs are created in the transaction of the reports, and entries are cached once it has committed.
+ * Updates of {@link Bug#getLastReport()} are collected and written periodically.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class BugCache {
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final RetraceService retraceService;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Cache<Key, Entry> cache;
+    @NonNull private final ConcurrentMap<Integer, Date> pendingLastReports;
+    @NonNull private final Counter flushes;
+    @NonNull private final Log log;
+
+    @Autowired
+    public BugCache(@NonNull AppRepository appRepository, @NonNull BugRepository bugRepository, @NonNull RetraceService retraceService,
+            @NonNull PlatformTransactionManager transactionManager,
+            @NonNull AcraConfiguration configuration, @NonNull MeterRegistry meterRegistry) {
+        this.appRepository = appRepository;
+        this.bugRepository = bugRepository;
+        this.retraceService = retraceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = Caffeine.newBuilder().maximumSize(configuration.getBugCache().getSize()).recordStats().build();
+        this.pendingLastReports = new ConcurrentHashMap<>();
+        this.flushes = meterRegistry.counter("acra.bugs.flushes");
+        this.log = LogFactory.getLog(getClass());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bugs");
+    }
+
+    /**
+     * Returns the id of the bug with the given fingerprint, creating the bug if it does not exist yet.
+     * Has to be called in a transaction, a new bug and its open bug count are rolled back with it.
+     * If another instance creates the same bug concurrently, the unique fingerprint fails the transaction and the bug is found when retried.
+     *
+     * @return the id of the bug
+     */
+    public int resolve(int appId, @NonNull String stacktrace, @NonNull String fingerprint, int versionCode, @NonNull Date date) {
+        Key key = new Key(appId, fingerprint);
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            entry = getUncommitted().computeIfAbsent(key, k -> find(appId, stacktrace, fingerprint, versionCode, date));
+        }
+        if (entry.update(date)) {
+            pendingLastReports.merge(entry.bugId, date, (a, b) -> a.after(b) ? a : b);
+        }
+        return entry.bugId;
+    }
+
+    public void invalidate(@NonNull App app) {
+        cache.asMap().keySet().removeIf(key -> key.appId == app.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${acra.bugCache.flushInterval}")
+    @PreDestroy
+    public void flush() {
+        if (pendingLastReports.isEmpty()) {
+            return;
+        }
+        Map<Integer, Date> updates = new HashMap<>();
+        for (Integer id : pendingLastReports.keySet()) {
+            Date date = pendingLastReports.remove(id);
+            if (date != null) {
+                updates.put(id, date);
+            }
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                updates.forEach(bugRepository::updateLastReport);
+                return null;
+            });
+            flushes.increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to update last report of " + updates.size() + " bugs", e);
+            updates.forEach((id, date) -> pendingLastReports.merge(id, date, (a, b) -> a.after(b) ? a : b));
+        }
+    }
+
+    /**
+     * @return the entries loaded in the current transaction, which are cached and retraced once it has committed
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private Map<Key, Entry> getUncommitted() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Bugs can only be resolved in a transaction");
+        }
+        Map<Key, Entry> entries = (Map<Key, Entry>) TransactionSynchronizationManager.getResource(this);
+        if (entries == null) {
+            Map<Key, Entry> uncommitted = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, uncommitted);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache.putAll(uncommitted);
+                    //does nothing if the bug is already retraced with the current mapping
+                    uncommitted.values().forEach(entry -> retraceService.retraceBug(entry.bugId));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(BugCache.this);
+                }
+            });
+            entries = uncommitted;
+        }
+        return entries;
+    }
+
+    @NonNull
+    private Entry find(int appId, @NonNull String stacktrace, @NonNull String fingerprint, int versionCode, @NonNull Date date) {
+        App app = appRepository.getOne(appId);
+        return new Entry(bugRepository.findBugByAppAndFingerprint(app, fingerprint).orElseGet(() -> {
+            Bug bug = bugRepository.save(new Bug(app, stacktrace, fingerprint, versionCode, date));
+            appRepository.addOpenBugCount(appId, 1);
+            return bug;
+        }));
+    }
+
+    private static class Key {
+        private final int appId;
+        @NonNull private final String fingerprint;
+
+        private Key(int appId, @NonNull String fingerprint) {
+            this.appId = appId;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return appId == key.appId && fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appId, fingerprint);
+        }
+    }
+
+    private static class Entry {
+        private final int bugId;
+        @NonNull private Date lastReport;
+
+        private Entry(@NonNull Bug bug) {
+            this.bugId = bug.getId();
+            this.lastReport = bug.getLastReport();
+        }
+
+        /**
+         * @return true if the date is newer than the last known report
+         */
+        private synchronized boolean update(@NonNull Date date) {
+            if (lastReport.before(date)) {
+                lastReport = date;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.faendir.acra.service.ingest;
+
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An attachment which has been received, but not yet persisted. Large attachments are kept in a temporary file, which is removed by {@link #delete()}.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class PendingAttachment {
+    /**
+     * attachments up to this size are kept in memory
+     */
+    private static final int MEMORY_THRESHOLD = 64 * 1024;
+    @NonNull private final String filename;
+    @Nullable private final byte[] content;
+    @Nullable private final Path file;
+    private final long length;
+    @Nullable private InputStream stream;
+
+    public PendingAttachment(@NonNull String filename, @NonNull byte[] content) {
+        this.filename = filename;
+        this.content = content;
+        this.file = null;
+        this.length = content.length;
+    }
+
+    private PendingAttachment(@NonNull String filename, @NonNull Path file, long length) {
+        this.filename = filename;
+        this.content = null;
+        this.file = file;
+        this.length = length;
+    }
+
+    /**
+     * Reads the attachment from the stream, spilling to a temporary file if it is large
+     */
+    @NonNull
+    public static PendingAttachment read(@NonNull String filename, @NonNull InputStream in) throws IOException {
+        DeferredFileOutputStream out = new DeferredFileOutputStream(MEMORY_THRESHOLD, "acra-attachment-", null, null);
+        try {
+            StreamUtils.copy(in, out);
+            out.close();
+        } catch (IOException e) {
+            out.close();
+            if (!out.isInMemory()) {
+                Files.deleteIfExists(out.getFile().toPath());
+            }
+            throw e;
+        }
+        return out.isInMemory() ? new PendingAttachment(filename, out.getData()) : new PendingAttachment(filename, out.getFile().toPath(), out.getByteCount());
+    }
+
+    @NonNull
+    public String getFilename() {
+        return filename;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return bytes held on the heap, which is zero if the attachment has been spilled to a file
+     */
+    public int getMemorySize() {
+        return content != null ? content.length : 0;
+    }
+
+    /**
+     * @return the content, which stays open until the attachment is opened again or deleted
+     */
+    @NonNull
+    public InputStream openStream() throws IOException {
+        closeStream();
+        stream = file != null ? Files.newInputStream(file) : new ByteArrayInputStream(content);
+        return stream;
+    }
+
+    /**
+     * Releases the temporary file, if any. Has to be called once the attachment has been persisted or rejected.
+     */
+    public void delete() {
+        try {
+            closeStream();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ignored) {
+            //the temporary directory is cleaned up by the system eventually
+        }
+    }
+
+    private void closeStream() throws IOException {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.faendir.acra.service.ingest;
+
+import com.faendir.acra.util.ReportInfo;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * A report which has been accepted by the REST endpoint, but not yet persisted
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class PendingReport {
+    private final int appId;
+    @NonNull private final ReportInfo info;
+    @NonNull private final byte[] content;
+    @NonNull private final List<PendingAttachment> attachments;
+
+    public PendingReport(int appId, @NonNull ReportInfo info, @NonNull byte[] content, @NonNull List<PendingAttachment> attachments) {
+        this.appId = appId;
+        this.info = info;
+        this.content = content;
+        this.attachments = attachments;
+    }
+
+    public int getAppId() {
+        return appId;
+    }
+
+    @NonNull
+    public ReportInfo getInfo() {
+        return info;
+    }
+
+    /**
+     * @return the raw report JSON, as received
+     */
+    @NonNull
+    public byte[] getContent() {
+        return content;
+    }
+
+    @NonNull
+    public List<PendingAttachment> getAttachments() {
+        return attachments;
+    }
+
+    /**
+     * @return bytes held on the heap by the content and the attachments kept in memory
+     */
+    public int getMemorySize() {
+        return content.length + attachments.stream().mapToInt(PendingAttachment::getMemorySize).sum();
+    }
+
+    /**
+     * Has to be called once the report has been persisted or rejected
+     */
+    public void deleteAttachments() {
+        attachments.forEach(PendingAttachment::delete);
+    }
+}
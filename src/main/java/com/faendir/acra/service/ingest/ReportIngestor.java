@@ -0,0 +1,143 @@
+package com.faendir.acra.service.ingest;
+
+import com.faendir.acra.config.AcraConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples report submission from persistence: reports are queued by the REST endpoint and stored in batches by a single worker thread.
+ * The queue is bounded both by the number of reports and by the bytes they hold in memory.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReportIngestor {
+    @NonNull private final BlockingQueue<PendingReport> queue;
+    /**
+     * permits are bytes of queued reports, released once a batch has been persisted
+     */
+    @NonNull private final Semaphore memory;
+    @NonNull private final ReportPersister persister;
+    private final int batchSize;
+    private final long flushInterval;
+    @NonNull private final Log log;
+    @Nullable private Thread worker;
+    private volatile boolean running;
+
+    @Autowired
+    public ReportIngestor(@NonNull ReportPersister persister, @NonNull AcraConfiguration configuration) {
+        this.persister = persister;
+        this.queue = new ArrayBlockingQueue<>(configuration.getIngest().getQueueCapacity());
+        this.memory = new Semaphore(configuration.getIngest().getQueueMemory());
+        this.batchSize = configuration.getIngest().getBatchSize();
+        this.flushInterval = configuration.getIngest().getFlushInterval();
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    /**
+     * @return false if the queue is full or the ingestor is not running, and the report has been rejected
+     */
+    public boolean offer(@NonNull PendingReport report) {
+        int size = report.getMemorySize();
+        if (!memory.tryAcquire(size)) {
+            return false;
+        }
+        synchronized (queue) {
+            if (running && queue.offer(report)) {
+                return true;
+            }
+        }
+        memory.release(size);
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void start() {
+        if (worker == null) {
+            setRunning(true);
+            worker = new Thread(this::run, "report-ingestor");
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        setRunning(false);
+        if (worker != null) {
+            worker.join();
+            worker = null;
+        }
+    }
+
+    private void run() {
+        List<PendingReport> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                log.warn("Report ingestor interrupted", e);
+                setRunning(false);
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    persister.persist(batch);
+                } finally {
+                    batch.forEach(PendingReport::deleteAttachments);
+                    memory.release(batch.stream().mapToInt(PendingReport::getMemorySize).sum());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Guarded by the queue, so that no report can be offered after the worker has seen that it is stopped and the queue is empty
+     */
+    private void setRunning(boolean running) {
+        synchronized (queue) {
+            this.running = running;
+        }
+    }
+
+    /**
+     * Waits up to one flush interval for the first report, then collects further reports until either the batch is full or the flush interval has passed.
+     */
+    private void fillBatch(@NonNull List<PendingReport> batch) throws InterruptedException {
+        PendingReport first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingReport next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.faendir.acra.service.ingest;
+
+import com.faendir.acra.service.attachment.AttachmentStore;
+import com.faendir.acra.service.data.RollupManager;
+import com.faendir.acra.service.statistics.StatisticsService;
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.data.ReportRepository;
+import com.faendir.acra.sql.model.Attachment;
+import com.faendir.acra.sql.model.Bug;
+import com.faendir.acra.sql.model.Report;
+import com.faendir.acra.sql.model.ReportContent;
+import com.faendir.acra.util.ReportInfo;
+import com.faendir.acra.util.Utils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores batches of reports, using one transaction per batch
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReportPersister {
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final ReportRepository reportRepository;
+    @NonNull private final RollupManager rollupManager;
+    @NonNull private final BugCache bugCache;
+    @NonNull private final AttachmentStore attachmentStore;
+    @NonNull private final StatisticsService statisticsService;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public ReportPersister(@NonNull BugRepository bugRepository, @NonNull ReportRepository reportRepository, @NonNull RollupManager rollupManager,
+            @NonNull BugCache bugCache, @NonNull AttachmentStore attachmentStore, @NonNull StatisticsService statisticsService,
+            @NonNull PlatformTransactionManager transactionManager) {
+        this.bugRepository = bugRepository;
+        this.reportRepository = reportRepository;
+        this.rollupManager = rollupManager;
+        this.bugCache = bugCache;
+        this.attachmentStore = attachmentStore;
+        this.statisticsService = statisticsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    public void persist(@NonNull List<PendingReport> batch) {
+        try {
+            transactionTemplate.execute(status -> {
+                RollupManager.Batch counts = rollupManager.batch();
+                //reports are persisted instead of merged, so a report sent twice would fail the whole batch
+                Set<String> known = new HashSet<>(reportRepository.findAllIdsIn(batch.stream().map(report -> report.getInfo().getId()).collect(Collectors.toSet())));
+                for (PendingReport report : batch) {
+                    if (known.add(report.getInfo().getId())) {
+                        store(report, counts);
+                    } else {
+                        log.debug("Skipping duplicate report " + report.getInfo().getId());
+                    }
+                }
+                //counters are updated in the same transaction, so they always match the stored reports
+                counts.flush();
+                return null;
+            });
+            //only after commit, so a concurrent request can not cache the old counts again
+            batch.stream().mapToInt(PendingReport::getAppId).distinct().forEach(statisticsService::invalidate);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("Failed to store report", e);
+                return;
+            }
+            log.warn("Failed to store batch of " + batch.size() + " reports, storing them one by one", e);
+            for (PendingReport report : batch) {
+                persist(Collections.singletonList(report));
+            }
+        }
+    }
+
+    private void store(@NonNull PendingReport pending, @NonNull RollupManager.Batch counts) {
+        ReportInfo info = pending.getInfo();
+        int bugId = bugCache.resolve(pending.getAppId(), info.getStacktrace(), Utils.getFingerprint(info.getStacktrace()), info.getVersionCode(), info.getDate());
+        Bug bug = bugRepository.getOne(bugId);
+        Report report = new Report(bug, info);
+        entityManager.persist(report);
+        counts.add(pending.getAppId(), bugId, report, 1);
+        entityManager.persist(new ReportContent(report, info, pending.getContent()));
+        for (PendingAttachment attachment : pending.getAttachments()) {
+            try {
+                //content saved for a transaction which is rolled back is removed by the AttachmentCollector
+                entityManager.persist(new Attachment(report, attachment.getFilename(), attachmentStore.save(attachment.openStream()), attachment.getLength()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.faendir.acra.service.ingest;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.sql.data.AppRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps reporter usernames to the id of their app, so incoming reports don't have to look up the app.
+ * Reporters without an app are not cached, as they are rejected anyway.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReporterCache {
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final Cache<String, Integer> cache;
+
+    @Autowired
+    public ReporterCache(@NonNull AppRepository appRepository, @NonNull AcraConfiguration configuration, @NonNull MeterRegistry meterRegistry) {
+        this.appRepository = appRepository;
+        this.cache = Caffeine.newBuilder().maximumSize(configuration.getReporterCache().getSize()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reporters");
+    }
+
+    /**
+     * @return the id of the app of the reporter, or null if the reporter does not belong to an app
+     */
+    @Nullable
+    public Integer getAppId(@NonNull String username) {
+        return cache.get(username, key -> appRepository.findIdByReporterUsername(key).orElse(null));
+    }
+
+    /**
+     * Has to be called when the reporter is replaced or its app is deleted
+     */
+    public void invalidate(@NonNull String username) {
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,240 @@
+package com.faendir.acra.service.retrace;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of a mapping compiled by {@link MappingIndexCompiler}, backed by a direct buffer so it does not occupy the heap.
+ * <p>
+ * Layout (all ints big endian): magic, string count, class count, member count, string offsets (string count + 1),
+ * classes (obfuscated name, original name, source file, first member, member count), members (obfuscated name, original class, original name,
+ * obfuscated start line, obfuscated end line, original start line, original end line), UTF-8 string data.
+ * Strings are sorted by their encoded bytes, classes and members of a class by obfuscated name, so lookups are binary searches.
+ * Absent values are stored as -1.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class MappingIndex {
+    static final int MAGIC = 0x4143524d;
+    static final int CLASS_SIZE = 5;
+    static final int MEMBER_SIZE = 7;
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int classCount;
+    private final int offsetsPosition;
+    private final int classesPosition;
+    private final int membersPosition;
+    private final int stringsPosition;
+
+    public MappingIndex(@NonNull byte[] data) {
+        buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a mapping index");
+        }
+        stringCount = buffer.getInt(4);
+        classCount = buffer.getInt(8);
+        int memberCount = buffer.getInt(12);
+        offsetsPosition = 16;
+        classesPosition = offsetsPosition + 4 * (stringCount + 1);
+        membersPosition = classesPosition + 4 * CLASS_SIZE * classCount;
+        stringsPosition = membersPosition + 4 * MEMBER_SIZE * memberCount;
+    }
+
+    /**
+     * @return the size of the index in bytes
+     */
+    public int size() {
+        return buffer.capacity();
+    }
+
+    @Nullable
+    public String getOriginalClass(@NonNull String obfuscated) {
+        int clazz = findClass(obfuscated);
+        return clazz == -1 ? null : getString(classInt(clazz, 1));
+    }
+
+    /**
+     * Resolves a stack frame. Inlined methods resolve to several frames, innermost first.
+     * Ambiguous frames without a matching line range resolve to all candidates.
+     *
+     * @param line the line number in the obfuscated frame, or -1 if unknown
+     * @return the original frames, or an empty list if the class or method is unknown
+     */
+    @NonNull
+    public List<Frame> getOriginalFrames(@NonNull String obfuscatedClass, @NonNull String obfuscatedMethod, int line) {
+        List<Frame> frames = new ArrayList<>();
+        int clazz = findClass(obfuscatedClass);
+        int name = findString(obfuscatedMethod);
+        if (clazz == -1 || name == -1) {
+            return frames;
+        }
+        int first = classInt(clazz, 3);
+        int count = classInt(clazz, 4);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (memberInt(first + mid, 0) < name) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int start = first + low;
+        int end = start;
+        while (end < first + count && memberInt(end, 0) == name) {
+            end++;
+        }
+        if (line != -1) {
+            for (int member = start; member < end; member++) {
+                if (memberInt(member, 3) != -1 && memberInt(member, 3) <= line && line <= memberInt(member, 4)) {
+                    int originalStart = memberInt(member, 5);
+                    int originalLine = originalStart == -1 ? line : memberInt(member, 6) == -1 ? originalStart : originalStart + line - memberInt(member, 3);
+                    frames.add(createFrame(clazz, member, originalLine));
+                }
+            }
+        }
+        if (frames.isEmpty()) {
+            for (int member = start; member < end; member++) {
+                Frame frame = createFrame(clazz, member, line);
+                if (frames.stream().noneMatch(f -> f.className.equals(frame.className) && f.methodName.equals(frame.methodName))) {
+                    frames.add(frame);
+                }
+            }
+        }
+        return frames;
+    }
+
+    @NonNull
+    private Frame createFrame(int clazz, int member, int line) {
+        int originalClass = memberInt(member, 1);
+        String className = originalClass == -1 ? getString(classInt(clazz, 1)) : getString(originalClass);
+        int sourceFile = classInt(clazz, 2);
+        return new Frame(className, getString(memberInt(member, 2)), originalClass == -1 && sourceFile != -1 ? getString(sourceFile) : null, line);
+    }
+
+    private int findClass(@NonNull String obfuscated) {
+        int name = findString(obfuscated);
+        if (name == -1) {
+            return -1;
+        }
+        int low = 0;
+        int high = classCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = classInt(mid, 0);
+            if (value < name) {
+                low = mid + 1;
+            } else if (value > name) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int findString(@NonNull String string) {
+        byte[] key = string.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = stringCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = buffer.getInt(offsetsPosition + 4 * mid);
+            int length = buffer.getInt(offsetsPosition + 4 * (mid + 1)) - offset;
+            offset += stringsPosition;
+            int result = 0;
+            for (int i = 0; i < Math.min(length, key.length) && result == 0; i++) {
+                result = Integer.compare(buffer.get(offset + i) & 0xff, key[i] & 0xff);
+            }
+            if (result == 0) {
+                result = Integer.compare(length, key.length);
+            }
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    private String getString(int index) {
+        int offset = buffer.getInt(offsetsPosition + 4 * index);
+        byte[] bytes = new byte[buffer.getInt(offsetsPosition + 4 * (index + 1)) - offset];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(stringsPosition + offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int classInt(int clazz, int field) {
+        return buffer.getInt(classesPosition + 4 * (CLASS_SIZE * clazz + field));
+    }
+
+    private int memberInt(int member, int field) {
+        return buffer.getInt(membersPosition + 4 * (MEMBER_SIZE * member + field));
+    }
+
+    /**
+     * Orders strings by their unsigned UTF-8 bytes, which is the order of the string table
+     */
+    static int compare(@NonNull byte[] a, @NonNull byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int result = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    public static class Frame {
+        private final String className;
+        private final String methodName;
+        private final String sourceFile;
+        private final int line;
+
+        Frame(@NonNull String className, @NonNull String methodName, @Nullable String sourceFile, int line) {
+            this.className = className;
+            this.methodName = methodName;
+            this.sourceFile = sourceFile;
+            this.line = line;
+        }
+
+        @NonNull
+        public String getClassName() {
+            return className;
+        }
+
+        @NonNull
+        public String getMethodName() {
+            return methodName;
+        }
+
+        /**
+         * @return the source file from the mapping, or null if the mapping does not contain it
+         */
+        @Nullable
+        public String getSourceFile() {
+            return sourceFile;
+        }
+
+        /**
+         * @return the original line number, or -1 if unknown
+         */
+        public int getLine() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.faendir.acra.service.retrace;
+
+import org.springframework.lang.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles a ProGuard mapping file into the binary format read by {@link MappingIndex}.
+ * Fields are dropped, as they never appear in stacktraces.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class MappingIndexCompiler {
+    private static final Pattern CLASS = Pattern.compile("^(\\S+) -> (\\S+):$");
+    private static final Pattern METHOD = Pattern.compile("^(?:(\\d+):(\\d+):)?\\S+ ([^\\s(]+)\\([^)]*\\)(?::(\\d+)(?::(\\d+))?)? -> (\\S+)$");
+    private static final Pattern SOURCE_FILE = Pattern.compile("\"id\"\\s*:\\s*\"sourceFile\".*\"fileName\"\\s*:\\s*\"([^\"]+)\"");
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<ClassEntry> classes = new ArrayList<>();
+
+    /**
+     * Parses a mapping file. Call {@link #compile()} when all lines have been passed.
+     */
+    public void parse(@NonNull Reader mapping) throws IOException {
+        BufferedReader reader = new BufferedReader(mapping);
+        ClassEntry current = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.startsWith("#")) {
+                Matcher matcher = SOURCE_FILE.matcher(trimmed);
+                if (current != null && matcher.find()) {
+                    current.sourceFile = intern(matcher.group(1));
+                }
+            } else if (!Character.isWhitespace(line.charAt(0))) {
+                Matcher matcher = CLASS.matcher(trimmed);
+                if (matcher.matches()) {
+                    current = new ClassEntry(intern(matcher.group(2)), intern(matcher.group(1)));
+                    classes.add(current);
+                } else {
+                    current = null;
+                }
+            } else if (current != null) {
+                Matcher matcher = METHOD.matcher(trimmed);
+                if (matcher.matches()) {
+                    String name = matcher.group(3);
+                    int dot = name.lastIndexOf('.');
+                    int originalClass = dot == -1 ? -1 : intern(name.substring(0, dot));
+                    current.members.add(new MemberEntry(intern(matcher.group(6)), originalClass, intern(name.substring(dot + 1)), number(matcher.group(1)),
+                            number(matcher.group(2)), number(matcher.group(4)), number(matcher.group(5))));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if no class mappings have been parsed
+     */
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    @NonNull
+    public byte[] compile() {
+        List<String> sorted = new ArrayList<>(strings.keySet());
+        List<byte[]> encoded = new ArrayList<>(sorted.size());
+        sorted.forEach(string -> encoded.add(string.getBytes(StandardCharsets.UTF_8)));
+        Integer[] order = new Integer[sorted.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(encoded::get, MappingIndex::compare));
+        int[] remap = new int[order.length];
+        int byteCount = 0;
+        for (int i = 0; i < order.length; i++) {
+            remap[strings.get(sorted.get(order[i]))] = i;
+            byteCount += encoded.get(order[i]).length;
+        }
+        classes.sort(Comparator.comparingInt(entry -> remap[entry.obfuscated]));
+        int memberCount = classes.stream().mapToInt(entry -> entry.members.size()).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (4 + order.length + 1 + classes.size() * MappingIndex.CLASS_SIZE + memberCount * MappingIndex.MEMBER_SIZE) + byteCount);
+        buffer.putInt(MappingIndex.MAGIC).putInt(order.length).putInt(classes.size()).putInt(memberCount);
+        int offset = 0;
+        for (Integer index : order) {
+            buffer.putInt(offset);
+            offset += encoded.get(index).length;
+        }
+        buffer.putInt(offset);
+        int firstMember = 0;
+        for (ClassEntry entry : classes) {
+            buffer.putInt(remap[entry.obfuscated]).putInt(remap[entry.original]).putInt(map(remap, entry.sourceFile)).putInt(firstMember).putInt(entry.members.size());
+            firstMember += entry.members.size();
+        }
+        for (ClassEntry entry : classes) {
+            //stable sort keeps inlined frames in the order of the mapping file
+            entry.members.sort(Comparator.comparingInt(member -> remap[member.obfuscated]));
+            for (MemberEntry member : entry.members) {
+                buffer.putInt(remap[member.obfuscated]).putInt(map(remap, member.originalClass)).putInt(remap[member.original])
+                        .putInt(member.obfuscatedStart).putInt(member.obfuscatedEnd).putInt(member.originalStart).putInt(member.originalEnd);
+            }
+        }
+        for (Integer index : order) {
+            buffer.put(encoded.get(index));
+        }
+        return buffer.array();
+    }
+
+    private int intern(@NonNull String string) {
+        return strings.computeIfAbsent(string, s -> strings.size());
+    }
+
+    private static int map(int[] remap, int index) {
+        return index == -1 ? -1 : remap[index];
+    }
+
+    private static int number(String value) {
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    private static class ClassEntry {
+        private final int obfuscated;
+        private final int original;
+        private final List<MemberEntry> members = new ArrayList<>();
+        private int sourceFile = -1;
+
+        ClassEntry(int obfuscated, int original) {
+            this.obfuscated = obfuscated;
+            this.original = original;
+        }
+    }
+
+    private static class MemberEntry {
+        private final int obfuscated;
+        private final int originalClass;
+        private final int original;
+        private final int obfuscatedStart;
+        private final int obfuscatedEnd;
+        private final int originalStart;
+        private final int originalEnd;
+
+        MemberEntry(int obfuscated, int originalClass, int original, int obfuscatedStart, int obfuscatedEnd, int originalStart, int originalEnd) {
+            this.obfuscated = obfuscated;
+            this.originalClass = originalClass;
+            this.original = original;
+            this.obfuscatedStart = obfuscatedStart;
+            this.obfuscatedEnd = obfuscatedEnd;
+            this.originalStart = originalStart;
+            this.originalEnd = originalEnd;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.faendir.acra.service.retrace;
+
+import com.faendir.acra.sql.data.AppRepository;
+import com.faendir.acra.sql.data.ProguardMappingRepository;
+import com.faendir.acra.sql.model.App;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retraces bugs which were not retraced with the current mappings, e.g. because the server stopped while retracing.
+ * A separate bean, so each version is retraced through the {@link RetraceService} proxy in its own asynchronous task.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class OutdatedBugRetracer {
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final ProguardMappingRepository mappingRepository;
+    @NonNull private final RetraceService retraceService;
+
+    @Autowired
+    public OutdatedBugRetracer(@NonNull AppRepository appRepository, @NonNull ProguardMappingRepository mappingRepository, @NonNull RetraceService retraceService) {
+        this.appRepository = appRepository;
+        this.mappingRepository = mappingRepository;
+        this.retraceService = retraceService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void retraceOutdatedBugs() {
+        for (App app : appRepository.findAll()) {
+            for (Integer versionCode : mappingRepository.findAllVersionCodesByApp(app)) {
+                retraceService.retraceBugs(app.getId(), versionCode);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.faendir.acra.service.retrace;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.data.ProguardMappingRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.Bug;
+import com.faendir.acra.sql.model.ProguardMapping;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Retraces stacktraces with compiled mapping indices, which are kept off-heap in a cache bounded by their size.
+ * The stacktrace of each bug is retraced once per mapping revision and stored with the bug.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class RetraceService {
+    private static final int PAGE_SIZE = 100;
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final ProguardMappingRepository mappingRepository;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Cache<ProguardMapping.MetaData, Mapping> cache;
+    @NonNull private final Log log;
+
+    @Autowired
+    public RetraceService(@NonNull BugRepository bugRepository, @NonNull ProguardMappingRepository mappingRepository,
+            @NonNull PlatformTransactionManager transactionManager, @NonNull AcraConfiguration configuration, @NonNull MeterRegistry meterRegistry) {
+        this.bugRepository = bugRepository;
+        this.mappingRepository = mappingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(configuration.getRetraceCache().getMaxWeight())
+                .weigher((ProguardMapping.MetaData key, Mapping value) -> value.index.size())
+                .recordStats()
+                .build();
+        this.log = LogFactory.getLog(getClass());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "mappings");
+    }
+
+    /**
+     * @throws IllegalArgumentException if the input contains no class mappings
+     */
+    @NonNull
+    public static byte[] compile(@NonNull Reader mappings) throws IOException {
+        MappingIndexCompiler compiler = new MappingIndexCompiler();
+        compiler.parse(mappings);
+        if (compiler.isEmpty()) {
+            throw new IllegalArgumentException("Not a ProGuard mapping file");
+        }
+        return compiler.compile();
+    }
+
+    /**
+     * Retraces a stacktrace of a report of the given bug, reusing the stored result of the bug if it applies
+     *
+     * @return the retraced stacktrace, or empty if there is no mapping for this version
+     */
+    @NonNull
+    public Optional<String> retrace(@NonNull Bug bug, int versionCode, @NonNull String stacktrace) {
+        Mapping mapping = getMapping(bug.getApp().getId(), versionCode);
+        if (mapping == null) {
+            return Optional.empty();
+        }
+        if (versionCode == bug.getVersionCode() && bug.getDeobfuscatedStacktrace() != null && bug.getDeobfuscationRevision() == mapping.revision
+            && stacktrace.equals(bug.getStacktrace())) {
+            return Optional.of(bug.getDeobfuscatedStacktrace());
+        }
+        return Optional.of(Retracer.retrace(stacktrace, mapping.index));
+    }
+
+    public void invalidate(@NonNull App app, int versionCode) {
+        cache.invalidate(new ProguardMapping.MetaData(app, versionCode));
+    }
+
+    /**
+     * Retraces all bugs of the given version which have not been retraced with the current mapping yet
+     */
+    @Async
+    public void retraceBugs(int appId, int versionCode) {
+        Integer revision = mappingRepository.findRevision(appId, versionCode);
+        if (revision == null) {
+            return;
+        }
+        int last = 0;
+        List<Bug> bugs;
+        do {
+            bugs = bugRepository.findAllToRetrace(appId, versionCode, last, revision, PageRequest.of(0, PAGE_SIZE));
+            for (Bug bug : bugs) {
+                retrace(bug);
+                last = bug.getId();
+            }
+        } while (bugs.size() == PAGE_SIZE);
+    }
+
+    @Async
+    public void retraceBug(int bugId) {
+        bugRepository.findById(bugId).ifPresent(this::retrace);
+    }
+
+    private void retrace(@NonNull Bug bug) {
+        Mapping mapping = getMapping(bug.getApp().getId(), bug.getVersionCode());
+        if (mapping != null && (bug.getDeobfuscatedStacktrace() == null || bug.getDeobfuscationRevision() != mapping.revision)) {
+            bugRepository.updateDeobfuscatedStacktrace(bug.getId(), Retracer.retrace(bug.getStacktrace(), mapping.index), mapping.revision);
+        }
+    }
+
+    @Nullable
+    private Mapping getMapping(int appId, int versionCode) {
+        return cache.get(new ProguardMapping.MetaData(appId, versionCode), this::load);
+    }
+
+    @Nullable
+    private Mapping load(@NonNull ProguardMapping.MetaData key) {
+        Integer revision = mappingRepository.findRevision(key.getAppId(), key.getVersionCode());
+        if (revision == null) {
+            return null;
+        }
+        byte[] index = mappingRepository.findMappingIndex(key.getAppId(), key.getVersionCode());
+        if (index == null) {
+            //mappings uploaded by older versions are compiled on first use
+            index = transactionTemplate.execute(status -> mappingRepository.findById(key).map(this::compile).orElse(null));
+            if (index == null) {
+                return null;
+            }
+            mappingRepository.setMappingIndex(key.getAppId(), key.getVersionCode(), index);
+        }
+        return new Mapping(new MappingIndex(index), revision);
+    }
+
+    @Nullable
+    private byte[] compile(@NonNull ProguardMapping mapping) {
+        try (Reader reader = new StringReader(mapping.getMappings())) {
+            return compile(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to compile mapping", e);
+            return null;
+        }
+    }
+
+    private static class Mapping {
+        private final MappingIndex index;
+        private final int revision;
+
+        Mapping(MappingIndex index, int revision) {
+            this.index = index;
+            this.revision = revision;
+        }
+    }
+}
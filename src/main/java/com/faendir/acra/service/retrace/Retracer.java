@@ -0,0 +1,76 @@
+package com.faendir.acra.service.retrace;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces obfuscated names in stacktraces with the original names from a {@link MappingIndex}
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+final class Retracer {
+    private static final Pattern FRAME = Pattern.compile("^(\\s*at\\s+)([^\\s(]+)\\.([^.\\s(]+)\\(([^)]*)\\)(.*)$");
+    private static final Pattern CLASS_NAME = Pattern.compile("[\\w$]+(?:\\.[\\w$]+)+");
+
+    @NonNull
+    static String retrace(@NonNull String stacktrace, @NonNull MappingIndex index) {
+        StringBuilder result = new StringBuilder(stacktrace.length());
+        for (String line : stacktrace.split("\n", -1)) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            Matcher frame = FRAME.matcher(line);
+            if (frame.matches()) {
+                String location = frame.group(4);
+                int separator = location.lastIndexOf(':');
+                int lineNumber = separator != -1 && location.substring(separator + 1).matches("\\d+") ? Integer.parseInt(location.substring(separator + 1)) : -1;
+                List<MappingIndex.Frame> frames = index.getOriginalFrames(frame.group(2), frame.group(3), lineNumber);
+                if (!frames.isEmpty()) {
+                    for (int i = 0; i < frames.size(); i++) {
+                        MappingIndex.Frame original = frames.get(i);
+                        if (i > 0) {
+                            result.append('\n');
+                        }
+                        result.append(frame.group(1)).append(original.getClassName()).append('.').append(original.getMethodName()).append('(');
+                        if ("Native Method".equals(location)) {
+                            result.append(location);
+                        } else {
+                            result.append(original.getSourceFile() != null ? original.getSourceFile() : getSourceFile(original.getClassName()));
+                            if (original.getLine() != -1) {
+                                result.append(':').append(original.getLine());
+                            }
+                        }
+                        result.append(')').append(frame.group(5));
+                    }
+                    continue;
+                }
+                String originalClass = index.getOriginalClass(frame.group(2));
+                if (originalClass != null) {
+                    result.append(frame.group(1)).append(originalClass).append('.').append(frame.group(3));
+                    result.append('(').append(location).append(')').append(frame.group(5));
+                    continue;
+                }
+            }
+            Matcher className = CLASS_NAME.matcher(line);
+            StringBuffer buffer = new StringBuffer();
+            while (className.find()) {
+                String original = index.getOriginalClass(className.group());
+                className.appendReplacement(buffer, Matcher.quoteReplacement(original != null ? original : className.group()));
+            }
+            className.appendTail(buffer);
+            result.append(buffer);
+        }
+        return result.toString();
+    }
+
+    @NonNull
+    private static String getSourceFile(@NonNull String className) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int inner = simpleName.indexOf('$');
+        return (inner == -1 ? simpleName : simpleName.substring(0, inner)) + ".java";
+    }
+}
@@ -0,0 +1,44 @@
+package com.faendir.acra.service.statistics;
+
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Labeled values of a chart, served as JSON by {@link StatisticsController} to the client side chart component
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class ChartData {
+    private final String title;
+    private final List<String> labels;
+    private final List<Long> values;
+
+    ChartData(@NonNull String title) {
+        this.title = title;
+        this.labels = new ArrayList<>();
+        this.values = new ArrayList<>();
+    }
+
+    void add(@NonNull String label, long value) {
+        labels.add(label);
+        values.add(value);
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    @NonNull
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    @NonNull
+    public List<Long> getValues() {
+        return values;
+    }
+}
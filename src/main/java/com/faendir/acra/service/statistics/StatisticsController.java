@@ -0,0 +1,69 @@
+package com.faendir.acra.service.statistics;
+
+import com.faendir.acra.security.SecurityUtils;
+import com.faendir.acra.sql.data.AppRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.Permission;
+import com.faendir.acra.sql.model.ReportRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Serves chart data as JSON. Responses may be cached by the client for a minute.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@RestController
+@RequestMapping("/api/statistics/{app}")
+@PreAuthorize("isAuthenticated()")
+public class StatisticsController {
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePrivate();
+    @NonNull private final AppRepository appRepository;
+    @NonNull private final StatisticsService statisticsService;
+
+    @Autowired
+    public StatisticsController(@NonNull AppRepository appRepository, @NonNull StatisticsService statisticsService) {
+        this.appRepository = appRepository;
+        this.statisticsService = statisticsService;
+    }
+
+    @GetMapping("/reports")
+    public ResponseEntity<ChartData> getReportsPerDay(@NonNull @PathVariable("app") String appId, @RequestParam(defaultValue = "30") int days) {
+        return respond(appId, app -> statisticsService.getReportsPerDay(app, days));
+    }
+
+    @GetMapping("/breakdown/{dimension}")
+    public ResponseEntity<ChartData> getBreakdown(@NonNull @PathVariable("app") String appId, @NonNull @PathVariable("dimension") ReportRollup.Dimension dimension,
+            @RequestParam(defaultValue = "10") int limit) {
+        return respond(appId, app -> statisticsService.getBreakdown(app, dimension, limit));
+    }
+
+    /**
+     * Apps the user is not allowed to view are reported as not found, so their ids can't be probed
+     */
+    @NonNull
+    private ResponseEntity<ChartData> respond(@NonNull String appId, @NonNull Function<App, ChartData> getter) {
+        Optional<App> app = appRepository.findByEncodedId(appId).filter(a -> SecurityUtils.hasPermission(a, Permission.Level.VIEW));
+        if (!app.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(getter.apply(app.get()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
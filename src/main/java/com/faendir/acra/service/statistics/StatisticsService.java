@@ -0,0 +1,171 @@
+package com.faendir.acra.service.statistics;
+
+import com.faendir.acra.config.AcraConfiguration;
+import com.faendir.acra.service.data.RollupManager;
+import com.faendir.acra.sql.data.DailyReportCountRepository;
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.ReportRollup;
+import com.faendir.acra.sql.util.CountResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Computes chart data from the maintained report counters.
+ * Results are cached per app, kind and parameters until reports of the app are stored or deleted, or their time to live expires.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class StatisticsService {
+    public static final int MAX_DAYS = 3650;
+    public static final int MAX_BREAKDOWN_SIZE = 100;
+    @NonNull private final DailyReportCountRepository dailyReportCountRepository;
+    @NonNull private final RollupManager rollupManager;
+    @NonNull private final Cache<Key, ChartData> cache;
+    @NonNull private final Map<Kind, Timer> timers;
+
+    @Autowired
+    public StatisticsService(@NonNull DailyReportCountRepository dailyReportCountRepository, @NonNull RollupManager rollupManager,
+            @NonNull AcraConfiguration configuration, @NonNull MeterRegistry meterRegistry) {
+        this.dailyReportCountRepository = dailyReportCountRepository;
+        this.rollupManager = rollupManager;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(configuration.getStatisticsCache().getSize())
+                .expireAfterWrite(configuration.getStatisticsCache().getTimeToLive(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "statistics");
+        this.timers = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            timers.put(kind, meterRegistry.timer("acra.statistics.compute", "kind", kind.name().toLowerCase()));
+        }
+    }
+
+    /**
+     * Drops all cached statistics of the app. Has to be called after reports of the app were stored or removed.
+     */
+    public void invalidate(int appId) {
+        cache.asMap().keySet().removeIf(key -> key.appId == appId);
+    }
+
+    /**
+     * @param days number of days before today to include, today is always included
+     * @return the number of reports per day, including days without reports
+     */
+    @NonNull
+    public ChartData getReportsPerDay(@NonNull App app, int days) {
+        int clampedDays = Math.max(1, Math.min(days, MAX_DAYS));
+        LocalDate today = LocalDate.now();
+        return get(new Key(app.getId(), Kind.REPORTS_PER_DAY, clampedDays + "/" + today), () -> computeReportsPerDay(app, today.minusDays(clampedDays), today));
+    }
+
+    /**
+     * @return the number of reports per day after start, up to and including end
+     */
+    @NonNull
+    private ChartData computeReportsPerDay(@NonNull App app, @NonNull LocalDate start, @NonNull LocalDate end) {
+        //dates of the DATE type are java.sql.Date, which does not support toInstant()
+        Map<LocalDate, Long> counts = dailyReportCountRepository.countAllByDayAfter(app, java.sql.Date.valueOf(start))
+                .stream()
+                .collect(Collectors.toMap(count -> Instant.ofEpochMilli(count.getGroup().getTime()).atZone(ZoneId.systemDefault()).toLocalDate(), CountResult::getCount,
+                        Long::sum));
+        ChartData data = new ChartData("Reports per day");
+        for (LocalDate day = start.plusDays(1); !day.isAfter(end); day = day.plusDays(1)) {
+            data.add(day.toString(), counts.getOrDefault(day, 0L));
+        }
+        return data;
+    }
+
+    /**
+     * @param limit maximum number of values, all other values are summed up as "Other"
+     * @throws IllegalArgumentException if the dimension is not enabled
+     */
+    @NonNull
+    public ChartData getBreakdown(@NonNull App app, @NonNull ReportRollup.Dimension dimension, int limit) {
+        if (!rollupManager.isEnabled(dimension)) {
+            throw new IllegalArgumentException("Dimension " + dimension + " is not enabled");
+        }
+        int clampedLimit = Math.max(1, Math.min(limit, MAX_BREAKDOWN_SIZE));
+        return get(new Key(app.getId(), Kind.BREAKDOWN, dimension + "/" + clampedLimit), () -> computeBreakdown(app, dimension, clampedLimit));
+    }
+
+    @NonNull
+    private ChartData computeBreakdown(@NonNull App app, @NonNull ReportRollup.Dimension dimension, int limit) {
+        List<CountResult<String>> top = rollupManager.getTop(app, dimension, limit);
+        ChartData data = new ChartData("Reports per " + getName(dimension));
+        top.forEach(count -> data.add(count.getGroup(), count.getCount()));
+        long other = rollupManager.getTotal(app, dimension) - top.stream().mapToLong(CountResult::getCount).sum();
+        if (other > 0) {
+            data.add("Other", other);
+        }
+        return data;
+    }
+
+    @NonNull
+    private ChartData get(@NonNull Key key, @NonNull Supplier<ChartData> computation) {
+        Timer timer = timers.get(key.kind);
+        return cache.get(key, k -> timer.record(computation));
+    }
+
+    @NonNull
+    private static String getName(@NonNull ReportRollup.Dimension dimension) {
+        switch (dimension) {
+            case ANDROID_VERSION:
+                return "Android Version";
+            case PHONE_MODEL:
+                return "Device";
+            case VERSION_CODE:
+                return "App Version";
+            default:
+                return "Bug and Day";
+        }
+    }
+
+    private enum Kind {
+        REPORTS_PER_DAY,
+        BREAKDOWN
+    }
+
+    private static class Key {
+        private final int appId;
+        private final Kind kind;
+        private final String parameters;
+
+        Key(int appId, @NonNull Kind kind, @NonNull String parameters) {
+            this.appId = appId;
+            this.kind = kind;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return appId == key.appId && kind == key.kind && parameters.equals(key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appId, kind, parameters);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.faendir.acra.sql.data;
 
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Permission;
+import com.faendir.acra.sql.util.AppSummary;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 
+import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -15,13 +18,26 @@ import java.util.Optional;
  * @since 11.12.2017
  */
 public interface AppRepository extends JpaRepository<App, Integer> {
-    Optional<App> findByReporterUsername(@NonNull String username);
+    @Query("select app.id from App app where app.reporter.username = ?1")
+    Optional<Integer> findIdByReporterUsername(@NonNull String username);
 
-    @Query("select app from App app where app not in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level < ?2)")
-    Slice<App> findAllByPermissionWithDefaultIncluded(@NonNull String username, @NonNull Permission.Level level, @NonNull Pageable pageable);
+    /**
+     * @param since start of the period to count recent reports in, the hourly counts after it are summed up
+     */
+    @Query("select new com.faendir.acra.sql.util.AppSummary(app.id, app.name, app.reportCount, app.openBugCount, "
+           + "(select coalesce(sum(hourly.reportCount), 0) from HourlyReportCount hourly where hourly.app = app and hourly.hour >= ?3)) from App app "
+           + "where app not in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level < ?2)")
+    Slice<AppSummary> findAllSummariesByPermissionWithDefaultIncluded(@NonNull String username, @NonNull Permission.Level level, @NonNull Date since,
+            @NonNull Pageable pageable);
 
-    @Query("select app from App app where app in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level >= ?2)")
-    Slice<App> findAllByPermissionWithDefaultExcluded(@NonNull String username, @NonNull Permission.Level level, @NonNull Pageable pageable);
+    /**
+     * @param since start of the period to count recent reports in, the hourly counts after it are summed up
+     */
+    @Query("select new com.faendir.acra.sql.util.AppSummary(app.id, app.name, app.reportCount, app.openBugCount, "
+           + "(select coalesce(sum(hourly.reportCount), 0) from HourlyReportCount hourly where hourly.app = app and hourly.hour >= ?3)) from App app "
+           + "where app in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level >= ?2)")
+    Slice<AppSummary> findAllSummariesByPermissionWithDefaultExcluded(@NonNull String username, @NonNull Permission.Level level, @NonNull Date since,
+            @NonNull Pageable pageable);
 
     @Query("select count(app) from App app where app not in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level < ?2)")
     int countByPermissionWithDefaultIncluded(@NonNull String username, @NonNull Permission.Level level);
@@ -29,6 +45,25 @@ public interface AppRepository extends JpaRepository<App, Integer> {
     @Query("select count(app) from App app where app in (select permission.app from User user join user.permissions permission where user.username = ?1 and permission.level >= ?2)")
     int countByPermissionWithDefaultExcluded(@NonNull String username, @NonNull Permission.Level level);
 
+    @Query("select app.reportCount from App app where app = ?1")
+    long getReportCount(@NonNull App app);
+
+    /**
+     * reportCount is not updatable through the entity, so stale copies of an app can't overwrite it
+     *
+     * @param count the number of reports to add, negative for deleted reports
+     */
+    @Modifying
+    @Query("update App app set app.reportCount = app.reportCount + ?2 where app.id = ?1")
+    void addReportCount(int id, long count);
+
+    /**
+     * @param count the number of bugs to add, negative for solved bugs
+     */
+    @Modifying
+    @Query("update App app set app.openBugCount = app.openBugCount + ?2 where app.id = ?1")
+    void addOpenBugCount(int id, int count);
+
     @SuppressWarnings("SpringDataMethodInconsistencyInspection")
     default Optional<App> findByEncodedId(String encodedId) {
         try {
@@ -2,9 +2,12 @@ package com.faendir.acra.sql.data;
 
 import com.faendir.acra.sql.model.Attachment;
 import com.faendir.acra.sql.model.Report;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,4 +16,17 @@ import java.util.List;
  */
 public interface AttachmentRepository extends JpaRepository<Attachment, Attachment.MetaData> {
     List<Attachment> findAllByReport(@NonNull Report report);
+
+    /**
+     * @return attachments stored in the database by older versions, ordered by their id and starting after the given one
+     */
+    @Query("select attachment from Attachment attachment where attachment.content is not null "
+           + "and (attachment.report.id > ?1 or (attachment.report.id = ?1 and attachment.filename > ?2)) order by attachment.report.id, attachment.filename")
+    List<Attachment> findAllWithContentAfter(@NonNull String reportId, @NonNull String filename, @NonNull Pageable pageable);
+
+    /**
+     * @return those of the given hashes which are referenced by an attachment
+     */
+    @Query("select distinct attachment.hash from Attachment attachment where attachment.hash in ?1")
+    List<String> findAllHashesIn(@NonNull Collection<String> hashes);
 }
@@ -5,8 +5,13 @@ import com.faendir.acra.sql.model.Bug;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,7 +25,57 @@ public interface BugRepository extends JpaRepository<Bug, Integer> {
 
     int countAllByApp(@NonNull App app);
 
+    @Query("select bug from Bug bug where bug.app = ?1 and (?2 = false or bug.solved = false) "
+           + "and (bug.lastReport > ?3 or (bug.lastReport = ?3 and bug.id > ?4)) order by bug.lastReport asc, bug.id asc")
+    List<Bug> findAllByAppAfter(@NonNull App app, boolean hideSolved, @NonNull Date lastReport, int id, @NonNull Pageable pageable);
+
+    @Query("select bug from Bug bug where bug.app = ?1 and (?2 = false or bug.solved = false) "
+           + "and (bug.lastReport < ?3 or (bug.lastReport = ?3 and bug.id < ?4)) order by bug.lastReport desc, bug.id desc")
+    List<Bug> findAllByAppBefore(@NonNull App app, boolean hideSolved, @NonNull Date lastReport, int id, @NonNull Pageable pageable);
+
     int countAllByAppAndSolvedFalse(@NonNull App app);
 
-    Optional<Bug> findBugByAppAndStacktrace(@NonNull App app, @NonNull String stacktrace);
+    Optional<Bug> findBugByAppAndFingerprint(@NonNull App app, @NonNull String fingerprint);
+
+    Slice<Bug> findAllByFingerprintIsNull(@NonNull Pageable pageable);
+
+    /**
+     * lastReport is not updatable through the entity, so stale copies of a bug can't overwrite it
+     */
+    @Modifying
+    @Query("update Bug bug set bug.lastReport = ?2 where bug.id = ?1 and (bug.lastReport is null or bug.lastReport < ?2)")
+    int updateLastReport(int id, @NonNull Date lastReport);
+
+    /**
+     * solved is not updatable through the entity, as the open bug count of the app has to change with it
+     *
+     * @return 1 if the bug changed, 0 otherwise
+     */
+    @Modifying
+    @Query("update Bug bug set bug.solved = ?2 where bug.id = ?1 and bug.solved <> ?2")
+    int updateSolved(int id, boolean solved);
+
+    @Query("select bug.reportCount from Bug bug where bug = ?1")
+    long getReportCount(@NonNull Bug bug);
+
+    /**
+     * reportCount is not updatable through the entity, so stale copies of a bug can't overwrite it
+     *
+     * @param count the number of reports to add, negative for deleted reports
+     */
+    @Modifying
+    @Query("update Bug bug set bug.reportCount = bug.reportCount + ?2 where bug.id = ?1")
+    void addReportCount(int id, long count);
+
+    /**
+     * @return bugs with an id greater than afterId which have not been retraced with the given revision of their mapping, ordered by id
+     */
+    @Query("select bug from Bug bug where bug.app.id = ?1 and bug.versionCode = ?2 and bug.id > ?3 "
+           + "and (bug.deobfuscatedStacktrace is null or bug.deobfuscationRevision <> ?4) order by bug.id")
+    List<Bug> findAllToRetrace(int appId, int versionCode, int afterId, int revision, @NonNull Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Bug bug set bug.deobfuscatedStacktrace = ?2, bug.deobfuscationRevision = ?3 where bug.id = ?1")
+    void updateDeobfuscatedStacktrace(int id, @NonNull String deobfuscatedStacktrace, int revision);
 }
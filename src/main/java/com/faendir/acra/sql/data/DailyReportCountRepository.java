@@ -0,0 +1,32 @@
+package com.faendir.acra.sql.data;
+
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.DailyReportCount;
+import com.faendir.acra.sql.util.CountResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.lang.NonNull;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public interface DailyReportCountRepository extends JpaRepository<DailyReportCount, DailyReportCount.MetaData> {
+    @SuppressWarnings("SpringDataRepositoryMethodReturnTypeInspection")
+    @Query("select new com.faendir.acra.sql.util.CountResult(daily.day, daily.reportCount) from DailyReportCount daily where daily.app = ?1 and daily.day > ?2")
+    List<CountResult<Date>> countAllByDayAfter(@NonNull App app, @NonNull Date date);
+
+    /**
+     * Atomically adds to the count of a day, creating it if necessary
+     *
+     * @param day the day as returned by {@link com.faendir.acra.util.Utils#getDay(Date)}
+     * @param count the number of reports to add, negative for deleted reports
+     */
+    @Modifying
+    @Query(value = "insert into daily_report_count (app_id, day, report_count) values (?1, ?2, ?3) on duplicate key update report_count = report_count + ?3", nativeQuery = true)
+    void add(int appId, @NonNull Date day, long count);
+}
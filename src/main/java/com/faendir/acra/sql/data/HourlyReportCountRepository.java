@@ -0,0 +1,31 @@
+package com.faendir.acra.sql.data;
+
+import com.faendir.acra.sql.model.HourlyReportCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public interface HourlyReportCountRepository extends JpaRepository<HourlyReportCount, HourlyReportCount.MetaData> {
+    @Transactional
+    @Modifying
+    @Query("delete from HourlyReportCount hourly where hourly.hour < ?1")
+    int deleteAllByHourBefore(@NonNull Date date);
+
+    /**
+     * Atomically adds to the count of an hour, creating it if necessary
+     *
+     * @param hour the hour as returned by {@link com.faendir.acra.util.Utils#getHour(Date)}
+     * @param count the number of reports to add, negative for deleted reports
+     */
+    @Modifying
+    @Query(value = "insert into hourly_report_count (app_id, hour, report_count) values (?1, ?2, ?3) on duplicate key update report_count = report_count + ?3", nativeQuery = true)
+    void add(int appId, @NonNull Date hour, long count);
+}
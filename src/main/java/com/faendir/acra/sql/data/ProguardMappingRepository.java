@@ -2,11 +2,17 @@ package com.faendir.acra.sql.data;
 
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.ProguardMapping;
+import com.faendir.acra.sql.util.MappingRow;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,11 +20,38 @@ import java.util.Optional;
  * @since 11.12.2017
  */
 public interface ProguardMappingRepository extends JpaRepository<ProguardMapping, ProguardMapping.MetaData> {
-    Slice<ProguardMapping> findAllByApp(@NonNull App app, @NonNull Pageable pageable);
+    @Query("select new com.faendir.acra.sql.util.MappingRow(mapping.app.id, mapping.versionCode) from ProguardMapping mapping where mapping.app = ?1")
+    Slice<MappingRow> findAllByApp(@NonNull App app, @NonNull Pageable pageable);
 
     int countAllByApp(@NonNull App app);
 
     default Optional<ProguardMapping> findById(@NonNull App app, int versionCode) {
         return findById(new ProguardMapping.MetaData(app, versionCode));
     }
+
+    /**
+     * @return the revision, or null if the mapping does not exist
+     */
+    @Nullable
+    @Query("select mapping.revision from ProguardMapping mapping where mapping.app.id = ?1 and mapping.versionCode = ?2")
+    Integer findRevision(int appId, int versionCode);
+
+    @Modifying
+    @Query("delete from ProguardMapping mapping where mapping.app.id = ?1 and mapping.versionCode = ?2")
+    void deleteByKey(int appId, int versionCode);
+
+    @Query("select mapping.versionCode from ProguardMapping mapping where mapping.app = ?1")
+    List<Integer> findAllVersionCodesByApp(@NonNull App app);
+
+    /**
+     * @return the compiled index, or null if the mapping does not exist or has not been compiled yet
+     */
+    @Nullable
+    @Query("select mapping.mappingIndex from ProguardMapping mapping where mapping.app.id = ?1 and mapping.versionCode = ?2")
+    byte[] findMappingIndex(int appId, int versionCode);
+
+    @Transactional
+    @Modifying
+    @Query("update ProguardMapping mapping set mapping.mappingIndex = ?3 where mapping.app.id = ?1 and mapping.versionCode = ?2")
+    void setMappingIndex(int appId, int versionCode, @NonNull byte[] mappingIndex);
 }
@@ -0,0 +1,15 @@
+package com.faendir.acra.sql.data;
+
+import com.faendir.acra.sql.model.ReportContent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.NonNull;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public interface ReportContentRepository extends JpaRepository<ReportContent, String> {
+    Slice<ReportContent> findAllByContentIsNotNull(@NonNull Pageable pageable);
+}
@@ -3,13 +3,15 @@ package com.faendir.acra.sql.data;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Bug;
 import com.faendir.acra.sql.model.Report;
-import com.faendir.acra.sql.util.CountResult;
+import com.faendir.acra.sql.util.ReportRow;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -18,27 +20,48 @@ import java.util.List;
  * @since 11.12.2017
  */
 public interface ReportRepository extends JpaRepository<Report, String> {
-    void deleteAllByBugAppAndDateBefore(@NonNull App app, @NonNull Date date);
+    /**
+     * A bulk delete, relies on the database to cascade to content and attachments
+     */
+    @Modifying
+    @Query("delete from Report report where report.bug in (select bug from Bug bug where bug.app = ?1) and report.date < ?2")
+    int deleteAllByBugAppAndDateBefore(@NonNull App app, @NonNull Date date);
 
-    Slice<Report> findAllByBugApp(@NonNull App app, @NonNull Pageable pageable);
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug.app = ?1")
+    Slice<ReportRow> findAllByBugApp(@NonNull App app, @NonNull Pageable pageable);
 
     int countAllByBugApp(@NonNull App app);
 
-    @SuppressWarnings("SpringDataRepositoryMethodReturnTypeInspection")
-    @Query("select new com.faendir.acra.sql.util.CountResult(report.date, count(report)) from Report report join Bug bug on report.bug = bug "
-           + "where bug.app = ?1 and report.date > ?2 group by function('year',report.date), function('month',report.date), function('day',report.date)")
-    List<CountResult<Date>> countAllByDayAfter(@NonNull App app, @NonNull Date date);
+    /**
+     * @return those of the given ids which belong to a stored report
+     */
+    @Query("select report.id from Report report where report.id in ?1")
+    List<String> findAllIdsIn(@NonNull Collection<String> ids);
 
-    Slice<Report> findAllByBug(@NonNull Bug bug, @NonNull Pageable pageable);
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug.app = ?1 and (report.date > ?2 or (report.date = ?2 and report.id > ?3)) order by report.date asc, report.id asc")
+    List<ReportRow> findAllByBugAppAfter(@NonNull App app, @NonNull Date date, @NonNull String id, @NonNull Pageable pageable);
+
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug.app = ?1 and (report.date < ?2 or (report.date = ?2 and report.id < ?3)) order by report.date desc, report.id desc")
+    List<ReportRow> findAllByBugAppBefore(@NonNull App app, @NonNull Date date, @NonNull String id, @NonNull Pageable pageable);
+
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug = ?1")
+    Slice<ReportRow> findAllByBug(@NonNull Bug bug, @NonNull Pageable pageable);
 
     int countAllByBug(@NonNull Bug bug);
 
-    @SuppressWarnings("SpringDataRepositoryMethodReturnTypeInspection")
-    @Query("select new com.faendir.acra.sql.util.CountResult(report.androidVersion, count(report)) from Report report join Bug bug on report.bug = bug "
-           + "where bug.app = ?1 group by report.androidVersion")
-    List<CountResult<String>> countAllByAndroidVersion(@NonNull App app);
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug = ?1 and (report.date > ?2 or (report.date = ?2 and report.id > ?3)) order by report.date asc, report.id asc")
+    List<ReportRow> findAllByBugAfter(@NonNull Bug bug, @NonNull Date date, @NonNull String id, @NonNull Pageable pageable);
+
+    @Query("select new com.faendir.acra.sql.util.ReportRow(report.id, report.date, report.versionCode, report.androidVersion, report.phoneModel, report.stacktraceSummary) "
+           + "from Report report where report.bug = ?1 and (report.date < ?2 or (report.date = ?2 and report.id < ?3)) order by report.date desc, report.id desc")
+    List<ReportRow> findAllByBugBefore(@NonNull Bug bug, @NonNull Date date, @NonNull String id, @NonNull Pageable pageable);
 
-    @SuppressWarnings("SpringDataRepositoryMethodReturnTypeInspection")
-    @Query("select new com.faendir.acra.sql.util.CountResult(bug.id, count(report)) from Report report group by report.bug")
-    List<CountResult<Integer>> countAllByBug();
+    @Modifying
+    @Query("update Report report set report.bug = ?2 where report.bug = ?1")
+    int reassignAllByBug(@NonNull Bug bug, @NonNull Bug target);
 }
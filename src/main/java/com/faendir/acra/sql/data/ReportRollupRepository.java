@@ -0,0 +1,53 @@
+package com.faendir.acra.sql.data;
+
+import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.model.ReportRollup;
+import com.faendir.acra.sql.util.CountResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public interface ReportRollupRepository extends JpaRepository<ReportRollup, ReportRollup.MetaData> {
+    /**
+     * @return the keys with the most reports, in descending order of their count
+     */
+    @SuppressWarnings("SpringDataRepositoryMethodReturnTypeInspection")
+    @Query("select new com.faendir.acra.sql.util.CountResult(rollup.rollupKey, rollup.reportCount) from ReportRollup rollup "
+           + "where rollup.app = ?1 and rollup.dimension = ?2 and rollup.reportCount > 0 order by rollup.reportCount desc")
+    List<CountResult<String>> findTop(@NonNull App app, @NonNull ReportRollup.Dimension dimension, @NonNull Pageable pageable);
+
+    @Nullable
+    @Query("select sum(rollup.reportCount) from ReportRollup rollup where rollup.app = ?1 and rollup.dimension = ?2")
+    Long sumAll(@NonNull App app, @NonNull ReportRollup.Dimension dimension);
+
+    boolean existsByDimension(@NonNull ReportRollup.Dimension dimension);
+
+    @Modifying
+    @Query("delete from ReportRollup rollup where rollup.dimension = ?1")
+    int deleteAllByDimension(@NonNull ReportRollup.Dimension dimension);
+
+    @Modifying
+    @Query("delete from ReportRollup rollup where rollup.app = ?1 and rollup.reportCount <= 0")
+    int deleteAllEmpty(@NonNull App app);
+
+    /**
+     * Atomically adds to the count of a key, creating it if necessary
+     *
+     * @param dimension the name of the {@link ReportRollup.Dimension}
+     * @param key the key as returned by {@link ReportRollup.Dimension#getKey(int, com.faendir.acra.sql.model.Report)}
+     * @param count the number of reports to add, negative for deleted reports
+     */
+    @Modifying
+    @Query(value = "insert into report_rollup (app_id, dimension, rollup_key, report_count) values (?1, ?2, ?3, ?4) on duplicate key update report_count = report_count + ?4",
+            nativeQuery = true)
+    void add(int appId, @NonNull String dimension, @NonNull String key, long count);
+}
@@ -0,0 +1,61 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.service.data.RollupManager;
+import com.faendir.acra.sql.data.HourlyReportCountRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Recomputes the report and open bug counts of all apps from the bugs, which is cheap compared to counting reports.
+ * Fills the hourly report counts from recent reports when they are introduced.
+ * Runs after the bug report counts are complete and before the report ingestor starts.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class AppSummaryMigration {
+    @NonNull private final HourlyReportCountRepository hourlyReportCountRepository;
+    @NonNull private final RollupManager rollupManager;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public AppSummaryMigration(@NonNull HourlyReportCountRepository hourlyReportCountRepository, @NonNull RollupManager rollupManager,
+            @NonNull PlatformTransactionManager transactionManager) {
+        this.hourlyReportCountRepository = hourlyReportCountRepository;
+        this.rollupManager = rollupManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    public void migrate() {
+        int count = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                "update app set report_count = (select coalesce(sum(bug.report_count), 0) from bug where bug.app_id = app.id), "
+                + "open_bug_count = (select count(*) from bug where bug.app_id = app.id and not bug.solved)").executeUpdate());
+        if (count > 0) {
+            log.info("Corrected summaries of " + count + " apps");
+        }
+        if (hourlyReportCountRepository.count() == 0) {
+            int hours = transactionTemplate.execute(status -> rollupManager.computeHourly());
+            if (hours > 0) {
+                log.info("Computed report counts for " + hours + " hours");
+            }
+        }
+    }
+}
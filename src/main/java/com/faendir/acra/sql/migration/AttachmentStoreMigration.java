@@ -0,0 +1,107 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.service.attachment.AttachmentStore;
+import com.faendir.acra.sql.data.AttachmentRepository;
+import com.faendir.acra.sql.model.Attachment;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Moves attachment content stored in the database by older versions to the {@link AttachmentStore}.
+ * Runs in the background once the startup migrations are done, as attachments remain readable while they are moved.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class AttachmentStoreMigration {
+    private static final int PAGE_SIZE = 20;
+    @NonNull private final AttachmentRepository attachmentRepository;
+    @NonNull private final AttachmentStore attachmentStore;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    private volatile boolean ready;
+    private volatile boolean done;
+
+    @Autowired
+    public AttachmentStoreMigration(@NonNull AttachmentRepository attachmentRepository, @NonNull AttachmentStore attachmentStore,
+            @NonNull PlatformTransactionManager transactionManager) {
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentStore = attachmentStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ready = true;
+    }
+
+    @Scheduled(initialDelay = 10000, fixedDelay = 60000)
+    public void migrate() {
+        if (!ready || done) {
+            return;
+        }
+        Cursor cursor = new Cursor();
+        List<Attachment> attachments;
+        do {
+            //attachments which can not be moved keep their content, so a cursor is needed to get past them
+            attachments = transactionTemplate.execute(status -> {
+                List<Attachment> page = attachmentRepository.findAllWithContentAfter(cursor.reportId, cursor.filename, PageRequest.of(0, PAGE_SIZE));
+                for (Attachment attachment : page) {
+                    if (move(attachment)) {
+                        cursor.moved++;
+                    } else {
+                        cursor.failed++;
+                    }
+                    cursor.reportId = attachment.getReport().getId();
+                    cursor.filename = attachment.getFilename();
+                }
+                return page;
+            });
+        } while (attachments.size() == PAGE_SIZE);
+        if (cursor.moved > 0) {
+            log.info("Moved " + cursor.moved + " attachments to the attachment store");
+        }
+        if (cursor.failed > 0) {
+            log.warn("Failed to move " + cursor.failed + " attachments to the attachment store, they remain in the database");
+        }
+        done = true;
+    }
+
+    /**
+     * @return if the attachment has been moved
+     */
+    private boolean move(@NonNull Attachment attachment) {
+        Blob content = attachment.getContent();
+        try (InputStream in = content.getBinaryStream()) {
+            attachment.setStored(attachmentStore.save(in), content.length());
+            return true;
+        } catch (IOException | SQLException e) {
+            log.warn("Failed to move attachment " + attachment.getFilename() + " of report " + attachment.getReport().getId(), e);
+            return false;
+        }
+    }
+
+    private static class Cursor {
+        private String reportId = "";
+        private String filename = "";
+        private int moved;
+        private int failed;
+    }
+}
@@ -0,0 +1,81 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.sql.data.BugRepository;
+import com.faendir.acra.sql.data.ReportRepository;
+import com.faendir.acra.sql.model.Bug;
+import com.faendir.acra.util.Utils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Computes fingerprints for bugs created before they were introduced.
+ * Bugs which turn out to have the same fingerprint as an existing bug of the same app are merged into it.
+ * Runs before the report ingestor starts, so no new bugs are created in the meantime.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class BugFingerprintMigration {
+    private static final int PAGE_SIZE = 100;
+    @NonNull private final BugRepository bugRepository;
+    @NonNull private final ReportRepository reportRepository;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+
+    @Autowired
+    public BugFingerprintMigration(@NonNull BugRepository bugRepository, @NonNull ReportRepository reportRepository, @NonNull PlatformTransactionManager transactionManager) {
+        this.bugRepository = bugRepository;
+        this.reportRepository = reportRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        int count = 0;
+        Slice<Bug> bugs;
+        do {
+            //migrated bugs drop out of the result, so this always requests the first page
+            bugs = transactionTemplate.execute(status -> {
+                Slice<Bug> slice = bugRepository.findAllByFingerprintIsNull(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+                slice.forEach(this::migrate);
+                return slice;
+            });
+            count += bugs.getNumberOfElements();
+        } while (bugs.hasNext());
+        if (count > 0) {
+            log.info("Computed fingerprints for " + count + " bugs");
+        }
+    }
+
+    private void migrate(@NonNull Bug bug) {
+        String fingerprint = Utils.getFingerprint(bug.getStacktrace());
+        Optional<Bug> existing = bugRepository.findBugByAppAndFingerprint(bug.getApp(), fingerprint);
+        if (existing.isPresent()) {
+            Bug target = existing.get();
+            bugRepository.updateLastReport(target.getId(), bug.getLastReport());
+            bugRepository.updateSolved(target.getId(), target.isSolved() && bug.isSolved());
+            reportRepository.reassignAllByBug(bug, target);
+            bugRepository.addReportCount(target.getId(), bug.getReportCount());
+            bugRepository.delete(bug);
+        } else {
+            bug.setFingerprint(fingerprint);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.faendir.acra.sql.migration;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Counts the reports of bugs created before report counts were introduced, which start out without a count.
+ * Versions which added the count as a not null column are migrated to a nullable column, as ddl-auto=update never relaxes existing columns.
+ * Also fills in the latest report of bugs created before it was tracked, as bugs are paged by it.
+ * Runs after bugs have been merged by {@link BugFingerprintMigration} and before the report ingestor starts, so no reports are counted twice.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class BugReportCountMigration {
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public BugReportCountMigration(@NonNull PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void migrate() {
+        boolean notNull = transactionTemplate.execute(status -> !entityManager.createNativeQuery(
+                "select 1 from information_schema.columns where table_schema = database() and table_name = 'bug' and column_name = 'report_count' and is_nullable = 'NO'")
+                .getResultList()
+                .isEmpty());
+        if (notNull) {
+            //zeros of the not null column can not be told apart from real counts, so all bugs are counted before the column is relaxed
+            int recounted = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                    "update bug set report_count = (select count(*) from report where report.bug_id = bug.id)").executeUpdate());
+            transactionTemplate.execute(status -> entityManager.createNativeQuery("alter table bug modify report_count bigint null").executeUpdate());
+            log.info("Counted reports of " + recounted + " bugs and made the report count nullable");
+        }
+        int count = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                "update bug set report_count = (select count(*) from report where report.bug_id = bug.id) where report_count is null").executeUpdate());
+        if (count > 0) {
+            log.info("Counted reports of " + count + " bugs");
+        }
+        int dated = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                "update bug set last_report = (select max(report.date) from report where report.bug_id = bug.id) where last_report is null").executeUpdate());
+        if (dated > 0) {
+            log.info("Found latest reports of " + dated + " bugs");
+        }
+    }
+}
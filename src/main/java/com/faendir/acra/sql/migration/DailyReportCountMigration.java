@@ -0,0 +1,53 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.sql.data.DailyReportCountRepository;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Fills the daily report counts from existing reports when they are introduced.
+ * Runs before the report ingestor starts, so no reports are counted twice.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class DailyReportCountMigration {
+    @NonNull private final DailyReportCountRepository dailyReportCountRepository;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public DailyReportCountMigration(@NonNull DailyReportCountRepository dailyReportCountRepository, @NonNull PlatformTransactionManager transactionManager) {
+        this.dailyReportCountRepository = dailyReportCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        if (dailyReportCountRepository.count() > 0) {
+            return;
+        }
+        int count = transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                "insert into daily_report_count (app_id, day, report_count) select bug.app_id, date(report.date), count(*) from report join bug on report.bug_id = bug.id "
+                + "group by bug.app_id, date(report.date)").executeUpdate());
+        if (count > 0) {
+            log.info("Computed report counts for " + count + " days");
+        }
+    }
+}
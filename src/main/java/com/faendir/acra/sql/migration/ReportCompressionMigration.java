@@ -0,0 +1,88 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.sql.data.ReportContentRepository;
+import com.faendir.acra.sql.model.ReportContent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses report content stored uncompressed by older versions.
+ * Runs in the background once the startup migrations are done, as reports remain readable while they are converted.
+ * Sizes and time are recorded per report, so the compression ratio and cost can be observed on real data.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReportCompressionMigration {
+    private static final int PAGE_SIZE = 100;
+    @NonNull private final ReportContentRepository reportContentRepository;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final DistributionSummary ratio;
+    @NonNull private final Timer timer;
+    @NonNull private final Log log;
+    private volatile boolean ready;
+    private volatile boolean done;
+
+    @Autowired
+    public ReportCompressionMigration(@NonNull ReportContentRepository reportContentRepository, @NonNull PlatformTransactionManager transactionManager, @NonNull MeterRegistry meterRegistry) {
+        this.reportContentRepository = reportContentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ratio = DistributionSummary.builder("acra.reports.compression.ratio").description("uncompressed size divided by compressed size").register(meterRegistry);
+        this.timer = Timer.builder("acra.reports.compression").description("time spent compressing legacy report content").register(meterRegistry);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ready = true;
+    }
+
+    @Scheduled(initialDelay = 10000, fixedDelay = 60000)
+    public void migrate() {
+        if (!ready || done) {
+            return;
+        }
+        long[] totals = new long[3];
+        Slice<ReportContent> contents;
+        do {
+            //converted reports drop out of the result, so this always requests the first page
+            contents = transactionTemplate.execute(status -> {
+                Slice<ReportContent> slice = reportContentRepository.findAllByContentIsNotNull(PageRequest.of(0, PAGE_SIZE));
+                for (ReportContent content : slice) {
+                    int size = content.getContent().getBytes(StandardCharsets.UTF_8).length;
+                    long start = System.nanoTime();
+                    int compressedSize = content.compressLegacyContent();
+                    long time = System.nanoTime() - start;
+                    timer.record(time, TimeUnit.NANOSECONDS);
+                    ratio.record((double) size / compressedSize);
+                    totals[0] += size;
+                    totals[1] += compressedSize;
+                    totals[2] += time;
+                }
+                return slice;
+            });
+        } while (contents.hasNext());
+        if (totals[0] > 0) {
+            log.info(String.format("Compressed report content from %d to %d bytes (ratio %.2f) in %d ms", totals[0], totals[1], (double) totals[0] / totals[1],
+                    TimeUnit.NANOSECONDS.toMillis(totals[2])));
+        }
+        done = true;
+    }
+}
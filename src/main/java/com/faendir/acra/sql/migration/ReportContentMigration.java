@@ -0,0 +1,101 @@
+package com.faendir.acra.sql.migration;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves the large report columns of older versions from the report table to report_content and drops them afterwards.
+ * Works on plain SQL, as the entities no longer map the old columns.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReportContentMigration {
+    private static final int BATCH_SIZE = 1000;
+    private static final List<String> LEGACY_COLUMNS = Arrays.asList("content", "compressed_content", "stacktrace", "user_comment");
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public ReportContentMigration(@NonNull PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void migrate() {
+        List<String> columns = transactionTemplate.execute(status -> {
+            @SuppressWarnings("unchecked") List<String> existing = entityManager.createNativeQuery(
+                    "select column_name from information_schema.columns where table_schema = database() and table_name = 'report'").getResultList();
+            return LEGACY_COLUMNS.stream().filter(column -> existing.stream().anyMatch(column::equalsIgnoreCase)).collect(Collectors.toList());
+        });
+        if (!columns.contains("stacktrace")) {
+            return;
+        }
+        log.info("Moving report content to a separate table");
+        //a plain insert fails on truncation instead of silently cutting data which is dropped afterwards, reports copied before are skipped
+        String insert = "insert into report_content (report_id, " + String.join(", ", columns) + ") select r.id, "
+                        + columns.stream().map(column -> "r." + column).collect(Collectors.joining(", "))
+                        + " from report r where not exists (select 1 from report_content c where c.report_id = r.id) and r.id > ?1";
+        String update = "update report r set r.stacktrace_summary = left(substring_index(r.stacktrace, char(10), 1), 255) where r.id > ?1";
+        String last = "";
+        int count = 0;
+        while (last != null) {
+            String from = last;
+            last = transactionTemplate.execute(status -> {
+                @SuppressWarnings("unchecked") List<String> next = entityManager.createNativeQuery("select id from report where id > ?1 order by id")
+                        .setParameter(1, from)
+                        .setFirstResult(BATCH_SIZE - 1)
+                        .setMaxResults(1)
+                        .getResultList();
+                String to = next.isEmpty() ? null : next.get(0);
+                String range = to != null ? " and r.id <= ?2" : "";
+                Query insertQuery = entityManager.createNativeQuery(insert + range).setParameter(1, from);
+                Query updateQuery = entityManager.createNativeQuery(update + range).setParameter(1, from);
+                if (to != null) {
+                    insertQuery.setParameter(2, to);
+                    updateQuery.setParameter(2, to);
+                }
+                insertQuery.executeUpdate();
+                updateQuery.executeUpdate();
+                return to;
+            });
+            count += BATCH_SIZE;
+            if (last != null && count % (BATCH_SIZE * 100) == 0) {
+                log.info("Moved content of " + count + " reports");
+            }
+        }
+        long reports = count("report");
+        long contents = count("report_content");
+        if (reports != contents) {
+            log.error("Found " + contents + " report contents for " + reports + " reports, keeping the old columns. The migration is retried on the next start.");
+            return;
+        }
+        transactionTemplate.execute(status -> entityManager.createNativeQuery(
+                "alter table report " + columns.stream().map(column -> "drop column " + column).collect(Collectors.joining(", "))).executeUpdate());
+        log.info("Moved report content to a separate table");
+    }
+
+    private long count(@NonNull String table) {
+        return transactionTemplate.execute(status -> ((Number) entityManager.createNativeQuery("select count(*) from " + table).getSingleResult()).longValue());
+    }
+}
@@ -0,0 +1,92 @@
+package com.faendir.acra.sql.migration;
+
+import com.faendir.acra.service.data.RollupManager;
+import com.faendir.acra.sql.data.ReportRollupRepository;
+import com.faendir.acra.sql.model.ReportRollup;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * Drops the counts of disabled rollup dimensions and computes the counts of newly enabled ones from existing reports.
+ * Also recomputes {@link ReportRollup.Dimension#BUG_DAY} counts which were keyed by the day in the server time zone instead of UTC.
+ * Runs after bugs have been merged by {@link BugFingerprintMigration} and before the report ingestor starts, so no reports are counted twice.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Component
+public class ReportRollupMigration {
+    @NonNull private final ReportRollupRepository rollupRepository;
+    @NonNull private final RollupManager rollupManager;
+    @NonNull private final TransactionTemplate transactionTemplate;
+    @NonNull private final Log log;
+    @PersistenceContext private EntityManager entityManager;
+
+    @Autowired
+    public ReportRollupMigration(@NonNull ReportRollupRepository rollupRepository, @NonNull RollupManager rollupManager,
+            @NonNull PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.rollupManager = rollupManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.log = LogFactory.getLog(getClass());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void migrate() {
+        for (ReportRollup.Dimension dimension : ReportRollup.Dimension.values()) {
+            if (!rollupManager.isEnabled(dimension)) {
+                int count = transactionTemplate.execute(status -> rollupRepository.deleteAllByDimension(dimension));
+                if (count > 0) {
+                    log.info("Dropped " + count + " report counts of disabled dimension " + dimension);
+                }
+            } else if (!rollupRepository.existsByDimension(dimension) || dimension == ReportRollup.Dimension.BUG_DAY && hasLocalDays()) {
+                int count = transactionTemplate.execute(status -> {
+                    rollupRepository.deleteAllByDimension(dimension);
+                    return rollupManager.compute(dimension);
+                });
+                if (count > 0) {
+                    log.info("Computed " + count + " report counts of dimension " + dimension);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a report whose local day differs from its day in UTC. If the count of its UTC key does not match the reports with that key,
+     * the counts are keyed by local days. No such report exists if the server runs in UTC, in which case both keys are the same.
+     */
+    private boolean hasLocalDays() {
+        String key = ReportRollup.Dimension.BUG_DAY.getSqlExpression();
+        List<?> sample = entityManager.createNativeQuery("select bug.app_id, report.bug_id, " + key + " from report join bug on report.bug_id = bug.id "
+                                                         + "where date(report.date) <> date(convert_tz(report.date, @@session.time_zone, '+00:00')) limit 1")
+                .getResultList();
+        if (sample.isEmpty()) {
+            return false;
+        }
+        Object[] row = (Object[]) sample.get(0);
+        long expected = ((Number) entityManager.createNativeQuery("select count(*) from report where report.bug_id = ?1 and " + key + " = ?2")
+                .setParameter(1, row[1])
+                .setParameter(2, row[2])
+                .getSingleResult()).longValue();
+        List<?> counted = entityManager.createNativeQuery("select report_count from report_rollup where app_id = ?1 and dimension = ?2 and rollup_key = ?3")
+                .setParameter(1, row[0])
+                .setParameter(2, ReportRollup.Dimension.BUG_DAY.name())
+                .setParameter(3, row[2])
+                .getResultList();
+        return counted.isEmpty() || ((Number) counted.get(0)).longValue() != expected;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.lang.NonNull;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -25,6 +26,14 @@ public class App {
     @OneToOne(cascade = CascadeType.ALL, optional = false, orphanRemoval = true)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User reporter;
+    /**
+     * maintained by {@link com.faendir.acra.service.data.RollupManager}
+     */
+    @Column(updatable = false) private long reportCount;
+    /**
+     * maintained by {@link com.faendir.acra.service.data.DataManager} and {@link com.faendir.acra.service.ingest.BugCache}
+     */
+    @Column(updatable = false) private int openBugCount;
 
     @PersistenceConstructor
     App() {
@@ -53,6 +62,14 @@ public class App {
         this.reporter = reporter;
     }
 
+    public long getReportCount() {
+        return reportCount;
+    }
+
+    public int getOpenBugCount() {
+        return openBugCount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
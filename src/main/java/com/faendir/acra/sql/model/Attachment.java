@@ -1,13 +1,19 @@
 package com.faendir.acra.sql.model;
 
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import java.io.Serializable;
 import java.sql.Blob;
 import java.util.Objects;
@@ -18,28 +24,62 @@ import java.util.Objects;
  */
 @Entity
 @IdClass(Attachment.MetaData.class)
+@Table(indexes = @Index(columnList = "hash"))
 public class Attachment {
     @Id
     @ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH}, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Report report;
     @Id private String filename;
+    /**
+     * content stored in the database by older versions, null once moved to the {@link com.faendir.acra.service.attachment.AttachmentStore}
+     */
     private Blob content;
+    /**
+     * key of the content in the {@link com.faendir.acra.service.attachment.AttachmentStore}, null for content stored in the database
+     */
+    @Column(length = 64) private String hash;
+    private long size;
 
     @PersistenceConstructor
     Attachment() {
     }
 
-    public Attachment(@NonNull Report report, @NonNull String filename, @NonNull Blob content) {
+    public Attachment(@NonNull Report report, @NonNull String filename, @NonNull String hash, long size) {
         this.report = report;
         this.filename = filename;
-        this.content = content;
+        this.hash = hash;
+        this.size = size;
     }
 
     @NonNull
+    public Report getReport() {
+        return report;
+    }
+
+    @Nullable
     public Blob getContent() {
         return content;
     }
 
+    @Nullable
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Drops content stored in the database by older versions after it has been moved to the store
+     */
+    public void setStored(@NonNull String hash, long size) {
+        this.content = null;
+        this.hash = hash;
+        this.size = size;
+    }
+
     @NonNull
     public String getFilename() {
         return filename;
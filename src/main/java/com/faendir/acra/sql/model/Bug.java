@@ -5,13 +5,18 @@ import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import java.util.Date;
 
 /**
@@ -19,6 +24,7 @@ import java.util.Date;
  * @since 08.12.2017
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"app_id", "fingerprint"}), indexes = @Index(columnList = "app_id,last_report"))
 public class Bug {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,21 +32,35 @@ public class Bug {
     @ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH}, optional = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private App app;
-    private boolean solved;
+    @Column(updatable = false) private boolean solved;
     @Type(type = "text") private String stacktrace;
-    private Date lastReport;
+    @Column(length = 64) private String fingerprint;
+    @Column(updatable = false) private Date lastReport;
+    /**
+     * maintained by {@link com.faendir.acra.service.data.RollupManager}. Null for bugs created before it was introduced, until they are counted by
+     * {@link com.faendir.acra.sql.migration.BugReportCountMigration}.
+     */
+    @Column(updatable = false) private Long reportCount;
     private int versionCode;
+    /**
+     * the stacktrace retraced with revision {@link #deobfuscationRevision} of the mapping for {@link #versionCode}.
+     * Both are only written by {@link com.faendir.acra.service.retrace.RetraceService}.
+     */
+    @Type(type = "text") @Column(updatable = false) private String deobfuscatedStacktrace;
+    @Column(updatable = false) private int deobfuscationRevision;
 
     @PersistenceConstructor
     Bug() {
     }
 
-    public Bug(@NonNull App app, @NonNull String stacktrace, int versionCode, @NonNull Date lastReport) {
+    public Bug(@NonNull App app, @NonNull String stacktrace, @NonNull String fingerprint, int versionCode, @NonNull Date lastReport) {
         this.app = app;
         this.stacktrace = stacktrace;
+        this.fingerprint = fingerprint;
         this.versionCode = versionCode;
         this.lastReport = lastReport;
         this.solved = false;
+        this.reportCount = 0L;
     }
 
     public int getId() {
@@ -69,13 +89,37 @@ public class Bug {
         return stacktrace;
     }
 
+    /**
+     * @return the retraced stacktrace, or null if there is no mapping or it has not been retraced yet
+     */
+    @Nullable
+    public String getDeobfuscatedStacktrace() {
+        return deobfuscatedStacktrace;
+    }
+
+    public int getDeobfuscationRevision() {
+        return deobfuscationRevision;
+    }
+
+    /**
+     * @return the hash of the normalized stacktrace, see {@link com.faendir.acra.util.Utils#getFingerprint(String)}
+     */
+    @NonNull
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(@NonNull String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     @NonNull
     public Date getLastReport() {
         return lastReport;
     }
 
-    public void setLastReport(@NonNull Date lastReport) {
-        if (this.lastReport == null || this.lastReport.before(lastReport)) this.lastReport = lastReport;
+    public long getReportCount() {
+        return reportCount != null ? reportCount : 0;
     }
 
     @Override
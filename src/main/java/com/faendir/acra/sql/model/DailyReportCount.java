@@ -0,0 +1,60 @@
+package com.faendir.acra.sql.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.PersistenceConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Number of reports of an app per day. Only modified through {@link com.faendir.acra.sql.data.DailyReportCountRepository#add(int, Date, long)}.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Entity
+@IdClass(DailyReportCount.MetaData.class)
+public class DailyReportCount {
+    @Id
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private App app;
+    @Id
+    @Temporal(TemporalType.DATE)
+    private Date day;
+    private long reportCount;
+
+    @PersistenceConstructor
+    DailyReportCount() {
+    }
+
+    public static class MetaData implements Serializable {
+        private int app;
+        private Date day;
+
+        @PersistenceConstructor
+        MetaData() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MetaData metaData = (MetaData) o;
+            return app == metaData.app && Objects.equals(day, metaData.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(app, day);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.faendir.acra.sql.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.PersistenceConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.ManyToOne;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Number of reports of an app per hour, kept for {@link com.faendir.acra.service.data.RollupManager#HOURLY_RETENTION}. Only modified through {@link com.faendir.acra.service.data.RollupManager}.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Entity
+@IdClass(HourlyReportCount.MetaData.class)
+public class HourlyReportCount {
+    @Id
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private App app;
+    @Id
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date hour;
+    private long reportCount;
+
+    @PersistenceConstructor
+    HourlyReportCount() {
+    }
+
+    public static class MetaData implements Serializable {
+        private int app;
+        private Date hour;
+
+        @PersistenceConstructor
+        MetaData() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MetaData metaData = (MetaData) o;
+            return app == metaData.app && Objects.equals(hour, metaData.hour);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(app, hour);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.lang.NonNull;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.IdClass;
+import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import java.io.Serializable;
 import java.util.Objects;
@@ -26,15 +28,25 @@ public class ProguardMapping {
     private App app;
     @Id private int versionCode;
     @Type(type = "text") private String mappings;
+    /**
+     * compiled by {@link com.faendir.acra.service.retrace.MappingIndexCompiler}, null for mappings uploaded by older versions
+     */
+    @Lob @Column(name = "mapping_index") private byte[] mappingIndex;
+    /**
+     * incremented whenever the mapping is replaced
+     */
+    private int revision;
 
     @PersistenceConstructor
     ProguardMapping() {
     }
 
-    public ProguardMapping(App app, int versionCode, @NonNull String mappings) {
+    public ProguardMapping(App app, int versionCode, @NonNull String mappings, @NonNull byte[] mappingIndex, int revision) {
         this.app = app;
         this.versionCode = versionCode;
         this.mappings = mappings;
+        this.mappingIndex = mappingIndex;
+        this.revision = revision;
     }
 
     @NonNull
@@ -55,10 +67,22 @@ public class ProguardMapping {
         }
 
         public MetaData(App app, int versionCode) {
-            this.app = app.getId();
+            this(app.getId(), versionCode);
+        }
+
+        public MetaData(int appId, int versionCode) {
+            this.app = appId;
             this.versionCode = versionCode;
         }
 
+        public int getAppId() {
+            return app;
+        }
+
+        public int getVersionCode() {
+            return versionCode;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -1,39 +1,38 @@
 package com.faendir.acra.sql.model;
 
-import com.faendir.acra.util.Utils;
-import org.acra.ReportField;
+import com.faendir.acra.util.ReportInfo;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
-import org.hibernate.annotations.Type;
-import org.json.JSONObject;
 import org.springframework.data.annotation.PersistenceConstructor;
 import org.springframework.lang.NonNull;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
-import javax.persistence.Transient;
+import javax.persistence.Table;
 import java.util.Date;
 
 /**
+ * Holds the fields shown in report lists. The full content is stored separately in {@link ReportContent}.
+ *
  * @author Lukas
  * @since 08.12.2017
  */
 @Entity
+@Table(indexes = {@Index(columnList = "bug_id,date"), @Index(columnList = "date")})
 public class Report {
+    private static final int SUMMARY_LENGTH = 255;
     @Id private String id;
     @ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH}, optional = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Bug bug;
-    @Type(type = "text") private String content;
-    @Transient private JSONObject jsonObject;
     private Date date;
-    @Type(type = "text") private String stacktrace;
+    private String stacktraceSummary;
     private int versionCode;
     private String versionName;
     private String userEmail;
-    @Type(type = "text") private String userComment;
     private String androidVersion;
     private String phoneModel;
 
@@ -41,26 +40,17 @@ public class Report {
     Report() {
     }
 
-    public Report(@NonNull Bug bug, @NonNull String content) {
+    public Report(@NonNull Bug bug, @NonNull ReportInfo info) {
         this.bug = bug;
-        this.content = content;
-        this.id = getJsonObject().optString(ReportField.REPORT_ID.name());
-        this.date = Utils.getDateFromString(getJsonObject().optString(ReportField.USER_CRASH_DATE.name()));
-        this.stacktrace = getJsonObject().optString(ReportField.STACK_TRACE.name());
-        this.versionCode = getJsonObject().optInt(ReportField.APP_VERSION_CODE.name());
-        this.versionName = getJsonObject().optString(ReportField.APP_VERSION_NAME.name());
-        this.userEmail = getJsonObject().optString(ReportField.USER_EMAIL.name());
-        this.userComment = getJsonObject().optString(ReportField.USER_COMMENT.name());
-        this.androidVersion = getJsonObject().optString(ReportField.ANDROID_VERSION.name());
-        this.phoneModel = getJsonObject().optString(ReportField.PHONE_MODEL.name());
-    }
-
-    @NonNull
-    public final JSONObject getJsonObject() {
-        if (jsonObject == null) {
-            jsonObject = new JSONObject(content);
-        }
-        return jsonObject;
+        this.id = info.getId();
+        this.date = info.getDate();
+        String firstLine = info.getStacktrace().split("\n", 2)[0];
+        this.stacktraceSummary = firstLine.length() > SUMMARY_LENGTH ? firstLine.substring(0, SUMMARY_LENGTH) : firstLine;
+        this.versionCode = info.getVersionCode();
+        this.versionName = info.getVersionName();
+        this.userEmail = info.getUserEmail();
+        this.androidVersion = info.getAndroidVersion();
+        this.phoneModel = info.getPhoneModel();
     }
 
     @NonNull
@@ -79,8 +69,8 @@ public class Report {
     }
 
     @NonNull
-    public String getStacktrace() {
-        return stacktrace;
+    public String getStacktraceSummary() {
+        return stacktraceSummary;
     }
 
     public int getVersionCode() {
@@ -97,11 +87,6 @@ public class Report {
         return userEmail;
     }
 
-    @NonNull
-    public String getUserComment() {
-        return userComment;
-    }
-
     @NonNull
     public String getAndroidVersion() {
         return androidVersion;
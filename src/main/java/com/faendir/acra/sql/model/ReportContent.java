@@ -0,0 +1,95 @@
+package com.faendir.acra.sql.model;
+
+import com.faendir.acra.util.Compression;
+import com.faendir.acra.util.ReportInfo;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.Type;
+import org.json.JSONObject;
+import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.lang.NonNull;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.MapsId;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The large fields of a {@link Report}, which are only needed when a single report is viewed
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Entity
+public class ReportContent {
+    @Id private String id;
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Report report;
+    /**
+     * uncompressed content written by older versions, null once converted
+     */
+    @Type(type = "text") private String content;
+    @Lob @Column(name = "compressed_content") private byte[] compressedContent;
+    @Transient private JSONObject jsonObject;
+    @Type(type = "text") private String stacktrace;
+    @Type(type = "text") private String userComment;
+
+    @PersistenceConstructor
+    ReportContent() {
+    }
+
+    public ReportContent(@NonNull Report report, @NonNull ReportInfo info, @NonNull byte[] content) {
+        this.report = report;
+        this.compressedContent = Compression.compress(content);
+        this.stacktrace = info.getStacktrace();
+        this.userComment = info.getUserComment();
+    }
+
+    @NonNull
+    public final JSONObject getJsonObject() {
+        if (jsonObject == null) {
+            jsonObject = new JSONObject(getContent());
+        }
+        return jsonObject;
+    }
+
+    @NonNull
+    public String getContent() {
+        return content != null ? content : new String(Compression.decompress(compressedContent), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Moves content stored uncompressed by older versions to the compressed column
+     *
+     * @return the compressed size in bytes
+     */
+    public int compressLegacyContent() {
+        if (content != null) {
+            compressedContent = Compression.compress(content.getBytes(StandardCharsets.UTF_8));
+            content = null;
+        }
+        return compressedContent.length;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getStacktrace() {
+        return stacktrace;
+    }
+
+    @NonNull
+    public String getUserComment() {
+        return userComment;
+    }
+}
@@ -0,0 +1,131 @@
+package com.faendir.acra.sql.model;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Number of reports of an app per value of a {@link Dimension}. Only modified through {@link com.faendir.acra.service.data.RollupManager}.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@Entity
+@IdClass(ReportRollup.MetaData.class)
+@Table(indexes = @Index(columnList = "app_id,dimension,report_count"))
+public class ReportRollup {
+    public static final int KEY_LENGTH = 191;
+    @Id
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private App app;
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private Dimension dimension;
+    @Id
+    @Column(length = KEY_LENGTH)
+    private String rollupKey;
+    private long reportCount;
+
+    @PersistenceConstructor
+    ReportRollup() {
+    }
+
+    /**
+     * A property of reports to count by. Keys are computed in java for new reports and in SQL for existing ones, so both expressions have to match.
+     */
+    public enum Dimension {
+        ANDROID_VERSION("report.android_version") {
+            @Override
+            String getValue(int bugId, @NonNull Report report) {
+                return report.getAndroidVersion();
+            }
+        },
+        PHONE_MODEL("report.phone_model") {
+            @Override
+            String getValue(int bugId, @NonNull Report report) {
+                return report.getPhoneModel();
+            }
+        },
+        VERSION_CODE("report.version_code") {
+            @Override
+            String getValue(int bugId, @NonNull Report report) {
+                return String.valueOf(report.getVersionCode());
+            }
+        },
+        /**
+         * Keys are "bugId/yyyy-MM-dd" with the day in UTC, so they do not depend on the time zone of the server.
+         * Stored dates are in the session time zone of MySQL, which has to be the time zone of the server as well.
+         */
+        BUG_DAY("concat(report.bug_id, '/', date(convert_tz(report.date, @@session.time_zone, '+00:00')))") {
+            @Override
+            String getValue(int bugId, @NonNull Report report) {
+                return bugId + "/" + report.getDate().toInstant().atOffset(ZoneOffset.UTC).toLocalDate();
+            }
+        };
+        private final String sqlExpression;
+
+        Dimension(@NonNull String sqlValue) {
+            this.sqlExpression = "left(coalesce(" + sqlValue + ", ''), " + KEY_LENGTH + ")";
+        }
+
+        /**
+         * @return a native SQL expression computing the key of a row of the report table aliased as report
+         */
+        @NonNull
+        public String getSqlExpression() {
+            return sqlExpression;
+        }
+
+        @NonNull
+        public String getKey(int bugId, @NonNull Report report) {
+            String value = getValue(bugId, report);
+            if (value == null) {
+                return "";
+            }
+            return value.length() > KEY_LENGTH ? value.substring(0, KEY_LENGTH) : value;
+        }
+
+        @Nullable
+        abstract String getValue(int bugId, @NonNull Report report);
+    }
+
+    public static class MetaData implements Serializable {
+        private int app;
+        private Dimension dimension;
+        private String rollupKey;
+
+        @PersistenceConstructor
+        MetaData() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MetaData metaData = (MetaData) o;
+            return app == metaData.app && dimension == metaData.dimension && Objects.equals(rollupKey, metaData.rollupKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(app, dimension, rollupKey);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.faendir.acra.sql.util;
+
+/**
+ * The fields of an app shown in the app overview
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class AppSummary {
+    private final int id;
+    private final String name;
+    private final long reportCount;
+    private final int openBugCount;
+    private final long recentReportCount;
+
+    public AppSummary(int id, String name, long reportCount, int openBugCount, long recentReportCount) {
+        this.id = id;
+        this.name = name;
+        this.reportCount = reportCount;
+        this.openBugCount = openBugCount;
+        this.recentReportCount = recentReportCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getReportCount() {
+        return reportCount;
+    }
+
+    public int getOpenBugCount() {
+        return openBugCount;
+    }
+
+    /**
+     * @return the number of reports received in the last 24 hours
+     */
+    public long getRecentReportCount() {
+        return recentReportCount;
+    }
+}
@@ -0,0 +1,25 @@
+package com.faendir.acra.sql.util;
+
+/**
+ * The key of a mapping shown in mapping lists, without the mapping text and index
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class MappingRow {
+    private final int appId;
+    private final int versionCode;
+
+    public MappingRow(int appId, int versionCode) {
+        this.appId = appId;
+        this.versionCode = versionCode;
+    }
+
+    public int getAppId() {
+        return appId;
+    }
+
+    public int getVersionCode() {
+        return versionCode;
+    }
+}
@@ -0,0 +1,51 @@
+package com.faendir.acra.sql.util;
+
+import java.util.Date;
+
+/**
+ * The fields of a report shown in report lists
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class ReportRow {
+    private final String id;
+    private final Date date;
+    private final int versionCode;
+    private final String androidVersion;
+    private final String phoneModel;
+    private final String stacktraceSummary;
+
+    public ReportRow(String id, Date date, int versionCode, String androidVersion, String phoneModel, String stacktraceSummary) {
+        this.id = id;
+        this.date = date;
+        this.versionCode = versionCode;
+        this.androidVersion = androidVersion;
+        this.phoneModel = phoneModel;
+        this.stacktraceSummary = stacktraceSummary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public int getVersionCode() {
+        return versionCode;
+    }
+
+    public String getAndroidVersion() {
+        return androidVersion;
+    }
+
+    public String getPhoneModel() {
+        return phoneModel;
+    }
+
+    public String getStacktraceSummary() {
+        return stacktraceSummary;
+    }
+}
@@ -28,6 +28,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 
 /**
  * @author Lukas
@@ -66,6 +67,8 @@ public class BackendUI extends UI {
             }
             VaadinService.reinitializeSession(VaadinService.getCurrentRequest());
             SecurityContextHolder.getContext().setAuthentication(token);
+            //plain HTTP requests of this session, like the chart data, are authenticated from the HTTP session
+            getSession().getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, SecurityContextHolder.getContext());
             showMain();
             getPushConfiguration().setPushMode(PushMode.AUTOMATIC);
         } catch (AuthenticationException ex) {
@@ -75,6 +78,9 @@ public class BackendUI extends UI {
 
     public void logout() {
         getPushConfiguration().setPushMode(PushMode.DISABLED);
+        //the context is shared with the HTTP session, clearing it keeps the security filter from storing it again at the end of this request
+        SecurityContextHolder.getContext().setAuthentication(null);
+        getSession().getSession().removeAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
         SecurityContextHolder.clearContext();
         getPage().reload();
         getSession().close();
@@ -2,10 +2,10 @@ package com.faendir.acra.ui.view;
 
 import com.faendir.acra.security.SecurityUtils;
 import com.faendir.acra.sql.data.AppRepository;
-import com.faendir.acra.sql.data.ReportRepository;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Permission;
 import com.faendir.acra.sql.model.User;
+import com.faendir.acra.sql.util.AppSummary;
 import com.faendir.acra.sql.user.UserManager;
 import com.faendir.acra.ui.view.base.ConfigurationLabel;
 import com.faendir.acra.ui.view.base.MyGrid;
@@ -23,6 +23,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.util.Pair;
 import org.springframework.lang.NonNull;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Lukas
  * @since 23.03.2017
@@ -30,31 +33,35 @@ import org.springframework.lang.NonNull;
 @SpringView(name = "")
 public class Overview extends NamedView {
     @NonNull private final AppRepository appRepository;
-    @NonNull private final ReportRepository reportRepository;
     @NonNull private final UserManager userManager;
     @NonNull private final BufferedDataProvider.Factory factory;
-    private MyGrid<App> grid;
+    private MyGrid<AppSummary> grid;
 
     @Autowired
-    public Overview(@NonNull AppRepository appRepository, @NonNull ReportRepository reportRepository, @NonNull UserManager userManager,
-            @NonNull BufferedDataProvider.Factory factory) {
+    public Overview(@NonNull AppRepository appRepository, @NonNull UserManager userManager, @NonNull BufferedDataProvider.Factory factory) {
         this.appRepository = appRepository;
-        this.reportRepository = reportRepository;
         this.userManager = userManager;
         this.factory = factory;
     }
 
     @Override
     public void enter(ViewChangeListener.ViewChangeEvent event) {
-        grid = new MyGrid<>("Apps", factory.create(SecurityUtils.hasRole(UserManager.ROLE_ADMIN), (admin, pageable) -> admin ?
-                appRepository.findAllByPermissionWithDefaultIncluded(SecurityUtils.getUsername(), Permission.Level.VIEW, pageable) :
-                appRepository.findAllByPermissionWithDefaultExcluded(SecurityUtils.getUsername(), Permission.Level.VIEW, pageable), admin -> admin ?
-                appRepository.countByPermissionWithDefaultIncluded(SecurityUtils.getUsername(), Permission.Level.VIEW) :
-                appRepository.countByPermissionWithDefaultExcluded(SecurityUtils.getUsername(), Permission.Level.VIEW)));
+        //pages are also read in the background, where there is no security context
+        String username = SecurityUtils.getUsername();
+        grid = new MyGrid<>("Apps", factory.create(SecurityUtils.hasRole(UserManager.ROLE_ADMIN), (admin, pageable) -> {
+            Date since = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+            return admin ?
+                    appRepository.findAllSummariesByPermissionWithDefaultIncluded(username, Permission.Level.VIEW, since, pageable) :
+                    appRepository.findAllSummariesByPermissionWithDefaultExcluded(username, Permission.Level.VIEW, since, pageable);
+        }, admin -> admin ?
+                appRepository.countByPermissionWithDefaultIncluded(username, Permission.Level.VIEW) :
+                appRepository.countByPermissionWithDefaultExcluded(username, Permission.Level.VIEW)));
         grid.setWidth(100, Unit.PERCENTAGE);
         grid.setSelectionMode(Grid.SelectionMode.NONE);
-        grid.addColumn(App::getName, "Name");
-        grid.addColumn(reportRepository::countAllByBugApp, "Reports");
+        grid.addColumn(AppSummary::getName, "Name");
+        grid.addColumn(AppSummary::getReportCount, "Reports");
+        grid.addColumn(AppSummary::getRecentReportCount, "Last 24h");
+        grid.addColumn(AppSummary::getOpenBugCount, "Open Bugs");
         grid.addItemClickListener(e -> getNavigationManager().navigateTo(AppView.class, String.valueOf(e.getItem().getId())));
         VerticalLayout layout = new VerticalLayout(grid);
         if (SecurityUtils.hasRole(UserManager.ROLE_ADMIN)) {
@@ -2,19 +2,23 @@ package com.faendir.acra.ui.view;
 
 import com.diffplug.common.base.Errors;
 import com.diffplug.common.base.Throwing;
+import com.faendir.acra.service.attachment.AttachmentStore;
+import com.faendir.acra.service.retrace.RetraceService;
 import com.faendir.acra.sql.data.AttachmentRepository;
-import com.faendir.acra.sql.data.ProguardMappingRepository;
+import com.faendir.acra.sql.data.ReportContentRepository;
 import com.faendir.acra.sql.data.ReportRepository;
 import com.faendir.acra.sql.model.Attachment;
 import com.faendir.acra.sql.model.Permission;
-import com.faendir.acra.sql.model.ProguardMapping;
 import com.faendir.acra.sql.model.Report;
+import com.faendir.acra.sql.model.ReportContent;
 import com.faendir.acra.ui.annotation.RequiresAppPermission;
 import com.faendir.acra.ui.view.base.ParametrizedNamedView;
 import com.faendir.acra.util.Style;
-import com.faendir.acra.util.Utils;
+import com.vaadin.server.DownloadStream;
 import com.vaadin.server.FileDownloader;
 import com.vaadin.server.StreamResource;
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.server.VaadinResponse;
 import com.vaadin.shared.ui.ContentMode;
 import com.vaadin.spring.annotation.SpringView;
 import com.vaadin.ui.Alignment;
@@ -28,7 +32,11 @@ import com.vaadin.ui.VerticalLayout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Blob;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -44,43 +52,57 @@ import java.util.stream.Stream;
 @RequiresAppPermission(Permission.Level.VIEW)
 public class ReportView extends ParametrizedNamedView<Report> {
     @NonNull private final ReportRepository reportRepository;
+    @NonNull private final ReportContentRepository reportContentRepository;
     @NonNull private final AttachmentRepository attachmentRepository;
-    @NonNull private final ProguardMappingRepository mappingRepository;
+    @NonNull private final RetraceService retraceService;
+    @NonNull private final AttachmentStore attachmentStore;
 
     @Autowired
-    public ReportView(@NonNull ReportRepository reportRepository, @NonNull AttachmentRepository attachmentRepository, @NonNull ProguardMappingRepository mappingRepository) {
+    public ReportView(@NonNull ReportRepository reportRepository, @NonNull ReportContentRepository reportContentRepository, @NonNull AttachmentRepository attachmentRepository, @NonNull RetraceService retraceService,
+            @NonNull AttachmentStore attachmentStore) {
         super(report -> report.getBug().getApp());
         this.reportRepository = reportRepository;
+        this.reportContentRepository = reportContentRepository;
         this.attachmentRepository = attachmentRepository;
-        this.mappingRepository = mappingRepository;
+        this.retraceService = retraceService;
+        this.attachmentStore = attachmentStore;
     }
 
     @Override
     protected void enter(@NonNull Report report) {
+        ReportContent content = reportContentRepository.findById(report.getId()).orElse(null);
+        if (content == null) {
+            //reports of older versions get their content once the ReportContentMigration reaches them
+            setCompositionRoot(new Label("The content of this report is being migrated, please try again in a moment"));
+            Style.apply(this, Style.PADDING_LEFT, Style.PADDING_RIGHT, Style.PADDING_BOTTOM);
+            setSizeFull();
+            return;
+        }
         HorizontalLayout attachments = new HorizontalLayout();
         for (Attachment file : attachmentRepository.findAllByReport(report)) {
             Button button = new Button(file.getFilename());
-            new FileDownloader(new StreamResource(new ExceptionAwareStreamSource(file.getContent()::getBinaryStream), file.getFilename())).extend(button);
+            Blob blob = file.getContent();
+            new FileDownloader(blob != null ? new StreamResource(new ExceptionAwareStreamSource(blob::getBinaryStream), file.getFilename())
+                    : new StoredResource(attachmentStore, file)).extend(button);
             attachments.addComponent(button);
         }
         Style.apply(attachments, Style.MARGIN_BOTTOM, Style.MARGIN_TOP, Style.MARGIN_LEFT, Style.MARGIN_RIGHT);
         GridLayout summaryGrid = new GridLayout(2, 1);
         summaryGrid.addComponents(new Label("Version", ContentMode.PREFORMATTED), new Label(report.getVersionName(), ContentMode.PREFORMATTED));
         summaryGrid.addComponents(new Label("Email", ContentMode.PREFORMATTED), new Label(report.getUserEmail(), ContentMode.PREFORMATTED));
-        summaryGrid.addComponents(new Label("Comment", ContentMode.PREFORMATTED), new Label(report.getUserComment(), ContentMode.PREFORMATTED));
-        Optional<ProguardMapping> mapping = mappingRepository.findById(report.getBug().getApp(), report.getVersionCode());
-        if (mapping.isPresent()) {
-            summaryGrid.addComponents(new Label("De-obfuscated Stacktrace", ContentMode.PREFORMATTED),
-                    new Label(Utils.retrace(report.getStacktrace(), mapping.get().getMappings()), ContentMode.PREFORMATTED));
+        summaryGrid.addComponents(new Label("Comment", ContentMode.PREFORMATTED), new Label(content.getUserComment(), ContentMode.PREFORMATTED));
+        Optional<String> retraced = retraceService.retrace(report.getBug(), report.getVersionCode(), content.getStacktrace());
+        if (retraced.isPresent()) {
+            summaryGrid.addComponents(new Label("De-obfuscated Stacktrace", ContentMode.PREFORMATTED), new Label(retraced.get(), ContentMode.PREFORMATTED));
         } else {
-            summaryGrid.addComponents(new Label("Stacktrace (No mapping found)", ContentMode.PREFORMATTED), new Label(report.getStacktrace(), ContentMode.PREFORMATTED));
+            summaryGrid.addComponents(new Label("Stacktrace (No mapping found)", ContentMode.PREFORMATTED), new Label(content.getStacktrace(), ContentMode.PREFORMATTED));
         }
         summaryGrid.addComponents(new Label("Attachments", ContentMode.PREFORMATTED), attachments);
         summaryGrid.setDefaultComponentAlignment(Alignment.MIDDLE_LEFT);
         summaryGrid.setSizeFull();
         Panel summary = new Panel(summaryGrid);
         summary.setCaption("Summary");
-        Panel details = new Panel(getLayoutForMap(report.getJsonObject().toMap()));
+        Panel details = new Panel(getLayoutForMap(content.getJsonObject().toMap()));
         details.setCaption("Details");
         VerticalLayout layout = new VerticalLayout(summary, details);
         layout.setSizeUndefined();
@@ -146,4 +168,44 @@ public class ReportView extends ParametrizedNamedView<Report> {
             return Errors.log().getWithDefault(supplier, null);
         }
     }
+
+    /**
+     * Writes attachments from the {@link AttachmentStore} to the response channel, so their content is never copied through the heap as a whole
+     */
+    private static class StoredResource extends StreamResource {
+        private final AttachmentStore attachmentStore;
+        private final String hash;
+        private final long size;
+
+        StoredResource(@NonNull AttachmentStore attachmentStore, @NonNull Attachment attachment) {
+            super(() -> null, attachment.getFilename());
+            this.attachmentStore = attachmentStore;
+            this.hash = attachment.getHash();
+            this.size = attachment.getSize();
+        }
+
+        @Override
+        public DownloadStream getStream() {
+            DownloadStream stream = new DownloadStream(null, getMIMEType(), getFilename()) {
+                @Override
+                public void writeResponse(VaadinRequest request, VaadinResponse response) throws IOException {
+                    String contentDisposition = getParameter(CONTENT_DISPOSITION);
+                    if (contentDisposition == null) {
+                        contentDisposition = "attachment; " + getContentDispositionFilename(getFileName());
+                    }
+                    response.setContentType(getContentType());
+                    response.setCacheTime(getCacheTime());
+                    response.setHeader(CONTENT_DISPOSITION, contentDisposition);
+                    if (size <= Integer.MAX_VALUE) {
+                        response.setContentLength((int) size);
+                    }
+                    try (WritableByteChannel channel = Channels.newChannel(response.getOutputStream())) {
+                        attachmentStore.transferTo(hash, channel);
+                    }
+                }
+            };
+            stream.setCacheTime(getCacheTime());
+            return stream;
+        }
+    }
 }
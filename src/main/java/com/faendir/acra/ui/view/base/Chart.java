@@ -0,0 +1,45 @@
+package com.faendir.acra.ui.view.base;
+
+import com.vaadin.annotations.JavaScript;
+import com.vaadin.server.VaadinService;
+import com.vaadin.shared.ui.JavaScriptComponentState;
+import com.vaadin.ui.AbstractJavaScriptComponent;
+import org.springframework.lang.NonNull;
+
+/**
+ * A bar or pie chart drawn as SVG in the browser. The browser loads the values from the JSON endpoint of
+ * {@link com.faendir.acra.service.statistics.StatisticsController}, so the server only sends where to find them.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+@JavaScript("chart-connector.js")
+public class Chart extends AbstractJavaScriptComponent {
+    public Chart(@NonNull Type type) {
+        getState().type = type.name().toLowerCase();
+        setWidth(600, Unit.PIXELS);
+        setHeight(400, Unit.PIXELS);
+    }
+
+    /**
+     * @param path the path of the chart data relative to the statistics endpoint, e.g. "1/reports?days=30"
+     */
+    public void setSource(@NonNull String path) {
+        getState().source = VaadinService.getCurrentRequest().getContextPath() + "/api/statistics/" + path;
+    }
+
+    @Override
+    protected ChartState getState() {
+        return (ChartState) super.getState();
+    }
+
+    public enum Type {
+        BAR,
+        PIE
+    }
+
+    public static class ChartState extends JavaScriptComponentState {
+        public String type;
+        public String source;
+    }
+}
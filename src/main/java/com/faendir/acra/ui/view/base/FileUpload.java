@@ -0,0 +1,72 @@
+package com.faendir.acra.ui.view.base;
+
+import com.vaadin.ui.Upload;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the uploaded file to a temporary file, so memory use does not depend on the file size.
+ * Call {@link #discard()} when the file is no longer needed.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class FileUpload extends Upload {
+    @NonNull private final Log log;
+    @Nullable private Path file;
+    private boolean finished;
+
+    public FileUpload(String caption) {
+        super();
+        log = LogFactory.getLog(getClass());
+        finished = false;
+        setCaption(caption);
+        setReceiver(this::receive);
+        addSucceededListener(event -> finished = true);
+        addFailedListener(event -> discard());
+    }
+
+    @NonNull
+    private OutputStream receive(String filename, String mimeType) {
+        discard();
+        try {
+            file = Files.createTempFile("acra-upload", null);
+            return new BufferedOutputStream(Files.newOutputStream(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isUploaded() {
+        return finished;
+    }
+
+    /**
+     * @return the uploaded file, or null if no upload has finished
+     */
+    @Nullable
+    public Path getFile() {
+        return finished ? file : null;
+    }
+
+    public void discard() {
+        finished = false;
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete " + file, e);
+            }
+            file = null;
+        }
+    }
+}
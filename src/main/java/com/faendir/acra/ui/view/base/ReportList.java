@@ -3,7 +3,7 @@ package com.faendir.acra.ui.view.base;
 import com.faendir.acra.security.SecurityUtils;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Permission;
-import com.faendir.acra.sql.model.Report;
+import com.faendir.acra.sql.util.ReportRow;
 import com.faendir.acra.ui.NavigationManager;
 import com.faendir.acra.ui.view.ReportView;
 import com.faendir.acra.util.TimeSpanRenderer;
@@ -18,19 +18,19 @@ import java.util.function.Consumer;
  * @author Lukas
  * @since 14.05.2017
  */
-public class ReportList extends MyGrid<Report> {
+public class ReportList extends MyGrid<ReportRow> {
     public static final String CAPTION = "Reports";
 
-    public ReportList(App app, @NonNull NavigationManager navigationManager, @NonNull Consumer<Report> reportDeleter, @NonNull DataProvider<Report, ?> reportProvider) {
+    public ReportList(App app, @NonNull NavigationManager navigationManager, @NonNull Consumer<ReportRow> reportDeleter, @NonNull DataProvider<ReportRow, ?> reportProvider) {
         super(CAPTION, reportProvider);
         setId(CAPTION);
         setWidth(100, Unit.PERCENTAGE);
         setSelectionMode(SelectionMode.NONE);
-        sort(addColumn(Report::getDate, new TimeSpanRenderer(), "date", "Date"), SortDirection.DESCENDING);
-        addColumn(Report::getVersionCode, "versionCode", "App Version");
-        addColumn(Report::getAndroidVersion, "androidVersion", "Android Version");
-        addColumn(Report::getPhoneModel, "phoneModel", "Device");
-        addColumn(report -> report.getStacktrace().split("\n", 2)[0], "stacktrace", "Stacktrace").setExpandRatio(1);
+        sort(addColumn(ReportRow::getDate, new TimeSpanRenderer(), "date", "Date"), SortDirection.DESCENDING);
+        addColumn(ReportRow::getVersionCode, "versionCode", "App Version");
+        addColumn(ReportRow::getAndroidVersion, "androidVersion", "Android Version");
+        addColumn(ReportRow::getPhoneModel, "phoneModel", "Device");
+        addColumn(ReportRow::getStacktraceSummary, "stacktraceSummary", "Stacktrace").setExpandRatio(1);
         if (SecurityUtils.hasPermission(app, Permission.Level.EDIT)) {
             addColumn(report -> "Delete", new ButtonRenderer<>(e -> reportDeleter.accept(e.getItem()))).setSortable(false);
         }
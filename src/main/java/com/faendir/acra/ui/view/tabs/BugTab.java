@@ -1,12 +1,13 @@
 package com.faendir.acra.ui.view.tabs;
 
 import com.faendir.acra.security.SecurityUtils;
+import com.faendir.acra.service.data.DataManager;
 import com.faendir.acra.sql.data.BugRepository;
 import com.faendir.acra.sql.data.ReportRepository;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Bug;
 import com.faendir.acra.sql.model.Permission;
-import com.faendir.acra.sql.util.CountResult;
+import com.faendir.acra.sql.util.ReportRow;
 import com.faendir.acra.ui.NavigationManager;
 import com.faendir.acra.ui.view.base.MyCheckBox;
 import com.faendir.acra.ui.view.base.MyGrid;
@@ -27,10 +28,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Lukas
@@ -42,13 +41,16 @@ public class BugTab implements MyTabSheet.Tab {
     public static final String CAPTION = "Bugs";
     @NonNull private final BugRepository bugRepository;
     @NonNull private final ReportRepository reportRepository;
+    @NonNull private final DataManager dataManager;
     @NonNull private final BufferedDataProvider.Factory factory;
     @Nullable private ReportList reportList;
 
     @Autowired
-    public BugTab(@NonNull BugRepository bugRepository, @NonNull ReportRepository reportRepository, @NonNull BufferedDataProvider.Factory factory) {
+    public BugTab(@NonNull BugRepository bugRepository, @NonNull ReportRepository reportRepository, @NonNull DataManager dataManager,
+            @NonNull BufferedDataProvider.Factory factory) {
         this.bugRepository = bugRepository;
         this.reportRepository = reportRepository;
+        this.dataManager = dataManager;
         this.factory = factory;
     }
 
@@ -71,17 +73,23 @@ public class BugTab implements MyTabSheet.Tab {
         }));
         //bugs.setWidth(100, Unit.PERCENTAGE);
         bugs.setSizeFull();
-        Map<Integer, Long> counts = reportRepository.countAllByBug().stream().collect(Collectors.toMap(CountResult::getGroup, CountResult::getCount));
-        bugs.addColumn(bug -> counts.get(bug.getId()), "Reports");
+        bugs.addColumn(Bug::getReportCount, "reportCount", "Reports");
         bugs.sort(bugs.addColumn(Bug::getLastReport, new TimeSpanRenderer(), "lastReport", "Latest Report"), SortDirection.DESCENDING);
         bugs.addColumn(Bug::getVersionCode, "versionCode", "Version");
-        bugs.addColumn(bug -> bug.getStacktrace().split("\n", 2)[0], "stacktrace", "Stacktrace").setExpandRatio(1);
+        bugs.addColumn(bug -> (bug.getDeobfuscatedStacktrace() != null ? bug.getDeobfuscatedStacktrace() : bug.getStacktrace()).split("\n", 2)[0],
+                "stacktrace", "Stacktrace")
+                .setSortable(false)
+                .setExpandRatio(1);
         bugs.addSelectionListener(event -> {
             Optional<Bug> selection = event.getFirstSelectedItem();
             ReportList reports = null;
             if (selection.isPresent()) {
-                reports = new ReportList(app, navigationManager, reportRepository::delete,
-                        factory.create(selection.get(), reportRepository::findAllByBug, reportRepository::countAllByBug));
+                reports = new ReportList(app, navigationManager, report -> dataManager.deleteReport(report.getId()),
+                        factory.create(selection.get(), reportRepository::findAllByBug, reportRepository::countAllByBug,
+                                new BufferedDataProvider.Keyset<Bug, ReportRow>("date",
+                                        (bug, row, pageable) -> reportRepository.findAllByBugAfter(bug, row.getDate(), row.getId(), pageable),
+                                        (bug, row, pageable) -> reportRepository.findAllByBugBefore(bug, row.getDate(), row.getId(), pageable)),
+                                bugRepository::getReportCount));
                 reports.setSizeFull();
                 layout.replaceComponent(this.reportList, reports);
                 layout.setExpandRatio(reports, 1);
@@ -90,10 +98,8 @@ public class BugTab implements MyTabSheet.Tab {
             }
             this.reportList = reports;
         });
-        bugs.addColumn(bug -> new MyCheckBox(bug.isSolved(), SecurityUtils.hasPermission(app, Permission.Level.EDIT), e -> {
-            bug.setSolved(e.getValue());
-            bugRepository.save(bug);
-        }), new ComponentRenderer(), "Solved");
+        bugs.addColumn(bug -> new MyCheckBox(bug.isSolved(), SecurityUtils.hasPermission(app, Permission.Level.EDIT), e -> dataManager.setSolved(bug, e.getValue())),
+                new ComponentRenderer(), "Solved");
         layout.addComponent(bugs);
         layout.setExpandRatio(bugs, 1);
         layout.setSizeFull();
@@ -103,6 +109,8 @@ public class BugTab implements MyTabSheet.Tab {
 
     private BufferedDataProvider<Bug> createDataProvider(@NonNull App app, boolean hideSolved) {
         return factory.create(app, hideSolved ? bugRepository::findAllByAppAndSolvedFalse : bugRepository::findAllByApp,
-                hideSolved ? bugRepository::countAllByAppAndSolvedFalse : bugRepository::countAllByApp);
+                hideSolved ? bugRepository::countAllByAppAndSolvedFalse : bugRepository::countAllByApp, new BufferedDataProvider.Keyset<App, Bug>("lastReport",
+                        (a, bug, pageable) -> bugRepository.findAllByAppAfter(a, hideSolved, bug.getLastReport(), bug.getId(), pageable),
+                        (a, bug, pageable) -> bugRepository.findAllByAppBefore(a, hideSolved, bug.getLastReport(), bug.getId(), pageable)));
     }
 }
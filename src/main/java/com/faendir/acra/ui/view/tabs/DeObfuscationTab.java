@@ -1,12 +1,13 @@
 package com.faendir.acra.ui.view.tabs;
 
 import com.faendir.acra.security.SecurityUtils;
+import com.faendir.acra.service.data.DataManager;
 import com.faendir.acra.sql.data.ProguardMappingRepository;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Permission;
-import com.faendir.acra.sql.model.ProguardMapping;
+import com.faendir.acra.sql.util.MappingRow;
 import com.faendir.acra.ui.NavigationManager;
-import com.faendir.acra.ui.view.base.InMemoryUpload;
+import com.faendir.acra.ui.view.base.FileUpload;
 import com.faendir.acra.ui.view.base.MyGrid;
 import com.faendir.acra.ui.view.base.MyTabSheet;
 import com.faendir.acra.ui.view.base.Popup;
@@ -17,11 +18,14 @@ import com.vaadin.spring.annotation.SpringComponent;
 import com.vaadin.spring.annotation.ViewScope;
 import com.vaadin.ui.Button;
 import com.vaadin.ui.Component;
+import com.vaadin.ui.Notification;
 import com.vaadin.ui.ProgressBar;
 import com.vaadin.ui.VerticalLayout;
 import org.springframework.lang.NonNull;
 import org.vaadin.risto.stepper.IntStepper;
 
+import java.io.IOException;
+
 /**
  * @author Lukas
  * @since 19.05.2017
@@ -31,18 +35,20 @@ import org.vaadin.risto.stepper.IntStepper;
 public class DeObfuscationTab implements MyTabSheet.Tab {
     public static final String CAPTION = "De-Obfuscation";
     @NonNull private final ProguardMappingRepository mappingRepository;
+    @NonNull private final DataManager dataManager;
     @NonNull private final BufferedDataProvider.Factory factory;
 
-    public DeObfuscationTab(@NonNull ProguardMappingRepository mappingRepository, @NonNull BufferedDataProvider.Factory factory) {
+    public DeObfuscationTab(@NonNull ProguardMappingRepository mappingRepository, @NonNull DataManager dataManager, @NonNull BufferedDataProvider.Factory factory) {
         this.mappingRepository = mappingRepository;
+        this.dataManager = dataManager;
         this.factory = factory;
     }
 
     @Override
     public Component createContent(@NonNull App app, @NonNull NavigationManager navigationManager) {
         VerticalLayout layout = new VerticalLayout();
-        MyGrid<ProguardMapping> grid = new MyGrid<>(null, factory.create(app, mappingRepository::findAllByApp, mappingRepository::countAllByApp));
-        grid.addColumn(ProguardMapping::getVersionCode, "Version");
+        MyGrid<MappingRow> grid = new MyGrid<>(null, factory.create(app, mappingRepository::findAllByApp, mappingRepository::countAllByApp));
+        grid.addColumn(MappingRow::getVersionCode, "Version");
         grid.setWidth(100, VerticalLayout.Unit.PERCENTAGE);
         layout.addComponent(grid);
         layout.setSizeFull();
@@ -51,20 +57,26 @@ public class DeObfuscationTab implements MyTabSheet.Tab {
             layout.addComponent(new Button("Add File", e -> {
                 IntStepper version = new IntStepper("Version code");
                 version.setValue(1);
-                InMemoryUpload upload = new InMemoryUpload("Mapping file:");
+                FileUpload upload = new FileUpload("Mapping file:");
                 ProgressBar progressBar = new ProgressBar();
                 upload.addProgressListener((readBytes, contentLength) -> layout.getUI().access(() -> progressBar.setValue((float) readBytes / contentLength)));
-                new Popup().setTitle("New Mapping Configuration")
+                Popup popup = new Popup().setTitle("New Mapping Configuration")
                         .addComponent(version)
                         .addValidatedField(ValidatedField.of(upload, () -> upload, consumer -> upload.addFinishedListener(event -> consumer.accept(upload)))
-                                .addValidator(InMemoryUpload::isUploaded, "Upload failed"))
+                                .addValidator(FileUpload::isUploaded, "Upload failed"))
                         .addComponent(progressBar)
-                        .addCreateButton(popup -> {
-                            mappingRepository.save(new ProguardMapping(app, version.getValue(), upload.getUploadedString()));
+                        .addCreateButton(p -> {
+                            try {
+                                dataManager.saveMapping(app, version.getValue(), upload.getFile());
+                            } catch (IOException | IllegalArgumentException ex) {
+                                Notification.show("Could not read mapping file", ex.getMessage(), Notification.Type.ERROR_MESSAGE);
+                                return;
+                            }
                             grid.getDataProvider().refreshAll();
-                            popup.close();
-                        })
-                        .show();
+                            p.close();
+                        });
+                popup.addCloseListener(event -> upload.discard());
+                popup.show();
             }));
         }
         layout.setExpandRatio(grid, 1);
@@ -1,7 +1,6 @@
 package com.faendir.acra.ui.view.tabs;
 
-import com.faendir.acra.sql.data.AppRepository;
-import com.faendir.acra.sql.data.ReportRepository;
+import com.faendir.acra.service.data.DataManager;
 import com.faendir.acra.sql.model.App;
 import com.faendir.acra.sql.model.Permission;
 import com.faendir.acra.sql.model.User;
@@ -37,15 +36,13 @@ import java.util.Date;
 @ViewScope
 public class PropertiesTab implements MyTabSheet.Tab {
     public static final String CAPTION = "Properties";
-    @NonNull private final AppRepository appRepository;
-    private final ReportRepository reportRepository;
     @NonNull private final UserManager userManager;
+    @NonNull private final DataManager dataManager;
 
     @Autowired
-    public PropertiesTab(@NonNull AppRepository appRepository, @NonNull ReportRepository reportRepository, @NonNull UserManager userManager) {
-        this.appRepository = appRepository;
-        this.reportRepository = reportRepository;
+    public PropertiesTab(@NonNull UserManager userManager, @NonNull DataManager dataManager) {
         this.userManager = userManager;
+        this.dataManager = dataManager;
     }
 
     @Override
@@ -55,14 +52,13 @@ public class PropertiesTab implements MyTabSheet.Tab {
                 .addComponent(new Label("Are you sure you want to create a new ACRA configuration?<br>The existing configuration will be invalidated", ContentMode.HTML))
                 .addYesNoButtons(popup -> {
                     Pair<User, String> userPasswordPair = userManager.createReporterUser();
-                    app.setReporter(userPasswordPair.getFirst());
-                    appRepository.save(app);
+                    dataManager.setReporter(app, userPasswordPair.getFirst());
                     popup.clear().addComponent(new ConfigurationLabel(userPasswordPair.getFirst().getUsername(), userPasswordPair.getSecond())).addCloseButton().show();
                 })
                 .show()));
         layout.addComponent(new Button("Delete App",
                 e -> new Popup().setTitle("Confirm").addComponent(new Label("Are you sure you want to delete this app and all its associated content?")).addYesNoButtons(popup -> {
-                    appRepository.delete(app);
+                    dataManager.deleteApp(app);
                     popup.close();
                     navigationManager.navigateBack();
                 }).show()));
@@ -73,7 +69,7 @@ public class PropertiesTab implements MyTabSheet.Tab {
             Calendar calendar = Calendar.getInstance();
             calendar.add(Calendar.DAY_OF_MONTH, -age.getValue());
             Date keepAfter = calendar.getTime();
-            reportRepository.deleteAllByBugAppAndDateBefore(app, keepAfter);
+            dataManager.purgeReports(app, keepAfter);
         }), new Label("Reports older than "), age, new Label("Days"));
         purgeAge.setDefaultComponentAlignment(Alignment.MIDDLE_CENTER);
         layout.addComponent(purgeAge);
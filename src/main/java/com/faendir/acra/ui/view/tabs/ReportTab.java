@@ -1,7 +1,10 @@
 package com.faendir.acra.ui.view.tabs;
 
+import com.faendir.acra.service.data.DataManager;
+import com.faendir.acra.sql.data.AppRepository;
 import com.faendir.acra.sql.data.ReportRepository;
 import com.faendir.acra.sql.model.App;
+import com.faendir.acra.sql.util.ReportRow;
 import com.faendir.acra.ui.NavigationManager;
 import com.faendir.acra.ui.view.base.MyTabSheet;
 import com.faendir.acra.ui.view.base.ReportList;
@@ -19,19 +22,28 @@ import org.springframework.lang.NonNull;
 @SpringComponent
 @ViewScope
 public class ReportTab implements MyTabSheet.Tab {
+    @NonNull private final AppRepository appRepository;
     @NonNull private final ReportRepository reportRepository;
+    @NonNull private final DataManager dataManager;
     @NonNull private final BufferedDataProvider.Factory factory;
 
     @Autowired
-    public ReportTab(@NonNull ReportRepository reportRepository, @NonNull BufferedDataProvider.Factory factory) {
+    public ReportTab(@NonNull AppRepository appRepository, @NonNull ReportRepository reportRepository, @NonNull DataManager dataManager,
+            @NonNull BufferedDataProvider.Factory factory) {
+        this.appRepository = appRepository;
         this.reportRepository = reportRepository;
+        this.dataManager = dataManager;
         this.factory = factory;
     }
 
     @Override
     public Component createContent(@NonNull App app, @NonNull NavigationManager navigationManager) {
-        Component content = new ReportList(app, navigationManager, reportRepository::delete,
-                factory.create(app, reportRepository::findAllByBugApp, reportRepository::countAllByBugApp));
+        Component content = new ReportList(app, navigationManager, report -> dataManager.deleteReport(report.getId()),
+                factory.create(app, reportRepository::findAllByBugApp, reportRepository::countAllByBugApp,
+                        new BufferedDataProvider.Keyset<App, ReportRow>("date",
+                                (a, row, pageable) -> reportRepository.findAllByBugAppAfter(a, row.getDate(), row.getId(), pageable),
+                                (a, row, pageable) -> reportRepository.findAllByBugAppBefore(a, row.getDate(), row.getId(), pageable)),
+                        appRepository::getReportCount));
         content.setSizeFull();
         return content;
     }
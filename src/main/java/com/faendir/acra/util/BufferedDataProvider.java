@@ -3,21 +3,41 @@ package com.faendir.acra.util;
 import com.faendir.acra.config.AcraConfiguration;
 import com.vaadin.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.data.provider.Query;
+import com.vaadin.data.provider.QuerySortOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * Counts are kept for {@link AcraConfiguration#getCountTimeToLive()} seconds, as the grid asks for them on every refresh and sort.
+ * Where a maintained counter exists, it is used instead of counting the rows.
+ *
  * @author Lukas
  * @since 13.12.2017
  */
@@ -25,49 +45,340 @@ public class BufferedDataProvider<T> extends AbstractBackEndDataProvider<T, Void
     private final int pageSize;
     private final Function<Pageable, Slice<T>> getter;
     private final IntSupplier counter;
+    @Nullable private final Seek seek;
+    private final long countTimeToLive;
+    @Nullable private final IntSupplier maintainedCounter;
+    @NonNull private final Executor executor;
+    private int size;
+    private long sizeExpiry;
+    @NonNull private final PageCache pages;
+    private int lastFirstPage;
+    @Nullable private List<QuerySortOrder> lastSortOrders;
+    @Nullable private Sort sort;
 
-    private BufferedDataProvider(int pageSize, Function<Pageable, Slice<T>> getter, IntSupplier counter) {
+    private BufferedDataProvider(int pageSize, long countTimeToLive, Function<Pageable, Slice<T>> getter, IntSupplier counter, @Nullable String seekProperty,
+            @Nullable BiFunction<T, Pageable, List<T>> ascendingSeeker, @Nullable BiFunction<T, Pageable, List<T>> descendingSeeker,
+            @Nullable IntSupplier maintainedCounter, @NonNull Executor executor) {
         this.getter = getter;
         this.counter = counter;
         this.pageSize = pageSize;
+        this.countTimeToLive = countTimeToLive;
+        this.seek = seekProperty != null ? new Seek(seekProperty, ascendingSeeker, descendingSeeker) : null;
+        this.maintainedCounter = maintainedCounter;
+        this.executor = executor;
+        this.pages = new PageCache();
     }
 
     @Override
     protected Stream<T> fetchFromBackEnd(Query<T, Void> query) {
-        Sort sort = Sort.by(query.getSortOrders().stream().map(OrderAdapter::new).collect(Collectors.toList()));
-        Slice<T> slice = getter.apply(PageRequest.of(query.getOffset() / pageSize, pageSize, sort));
-        if (!slice.hasContent()) return Stream.empty();
-        List<T> content = slice.getContent();
-        int ignore = query.getOffset() % pageSize;
-        int size = content.size() - ignore;
-        Stream<T> result = content.stream().skip(ignore);
-        while (size < query.getLimit() && slice.hasNext()) {
-            slice = getter.apply(slice.nextPageable());
-            if (slice.hasContent()) {
-                content = slice.getContent();
-                size += content.size();
-                result = Stream.concat(result, content.stream());
+        Sort sort = getSort(query.getSortOrders());
+        int first = query.getOffset() / pageSize;
+        int last = (query.getOffset() + query.getLimit() - 1) / pageSize;
+        List<T> result = new ArrayList<>();
+        boolean more = true;
+        for (int page = first; page <= last && more; page++) {
+            List<T> content = pages.get(sort, page);
+            result.addAll(content);
+            more = content.size() == pageSize;
+        }
+        //read ahead in the direction the grid is scrolled
+        if (first < lastFirstPage) {
+            if (first > 0) {
+                pages.prefetch(sort, first - 1);
             }
+        } else if (more) {
+            pages.prefetch(sort, last + 1);
         }
-        return result;
+        lastFirstPage = first;
+        return result.stream().skip(query.getOffset() % pageSize).limit(query.getLimit());
+    }
+
+    @NonNull
+    private List<T> load(@NonNull Sort sort, int page) {
+        if (seek != null && seek.supports(sort)) {
+            return seek.getPage(page, sort.iterator().next().isAscending());
+        }
+        return getter.apply(PageRequest.of(page, pageSize, sort)).getContent();
+    }
+
+    /**
+     * @return the sort of the last query if the sort orders did not change
+     */
+    @NonNull
+    private Sort getSort(@NonNull List<QuerySortOrder> sortOrders) {
+        if (sort == null || !isSame(sortOrders, lastSortOrders)) {
+            sort = Sort.by(sortOrders.stream().map(OrderAdapter::new).collect(Collectors.toList()));
+            lastSortOrders = sortOrders;
+        }
+        return sort;
+    }
+
+    private static boolean isSame(@NonNull List<QuerySortOrder> sortOrders, @Nullable List<QuerySortOrder> other) {
+        if (other == null || sortOrders.size() != other.size()) {
+            return false;
+        }
+        for (int i = 0; i < sortOrders.size(); i++) {
+            if (!sortOrders.get(i).getSorted().equals(other.get(i).getSorted()) || sortOrders.get(i).getDirection() != other.get(i).getDirection()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     protected int sizeInBackEnd(Query<T, Void> query) {
-        return counter.getAsInt();
+        long now = System.currentTimeMillis();
+        if (now < sizeExpiry) {
+            return size;
+        }
+        size = (maintainedCounter != null ? maintainedCounter : counter).getAsInt();
+        sizeExpiry = now + countTimeToLive;
+        return size;
+    }
+
+    @Override
+    public void refreshAll() {
+        if (seek != null) {
+            seek.clear();
+        }
+        pages.clear();
+        sizeExpiry = 0;
+        super.refreshAll();
+    }
+
+    /**
+     * Fetches pages in keyset order by seeking past the last row of the previous page, so the database does not have to skip all previous rows.
+     * The last rows of recently used pages are kept, jumps further than {@link #MAX_SEEK_DISTANCE} pages from a known page use a single offset query.
+     */
+    private class Seek {
+        private static final int MAX_SEEK_DISTANCE = 3;
+        private static final int MAX_BOUNDARIES = 100;
+        private final String property;
+        private final BiFunction<T, Pageable, List<T>> ascendingSeeker;
+        private final BiFunction<T, Pageable, List<T>> descendingSeeker;
+        /**
+         * the last row of the page before each page
+         */
+        private final Map<Integer, T> boundaries;
+        private boolean ascending;
+
+        Seek(@NonNull String property, @NonNull BiFunction<T, Pageable, List<T>> ascendingSeeker, @NonNull BiFunction<T, Pageable, List<T>> descendingSeeker) {
+            this.property = property;
+            this.ascendingSeeker = ascendingSeeker;
+            this.descendingSeeker = descendingSeeker;
+            this.boundaries = new LinkedHashMap<Integer, T>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+                    return size() > MAX_BOUNDARIES;
+                }
+            };
+        }
+
+        boolean supports(@NonNull Sort sort) {
+            Iterator<Sort.Order> iterator = sort.iterator();
+            return iterator.hasNext() && property.equals(iterator.next().getProperty()) && !iterator.hasNext();
+        }
+
+        synchronized void clear() {
+            boundaries.clear();
+        }
+
+        /**
+         * synchronized as pages are also read ahead in the background
+         */
+        @NonNull
+        synchronized List<T> getPage(int page, boolean ascending) {
+            if (ascending != this.ascending) {
+                boundaries.clear();
+                this.ascending = ascending;
+            }
+            int start = page;
+            while (start > 0 && !boundaries.containsKey(start) && page - start < MAX_SEEK_DISTANCE) {
+                start--;
+            }
+            List<T> content;
+            if (start > 0 && !boundaries.containsKey(start)) {
+                content = getter.apply(PageRequest.of(page, pageSize, getSort())).getContent();
+                start = page;
+            } else {
+                content = fetch(start);
+            }
+            remember(start, content);
+            while (start < page) {
+                if (content.size() < pageSize) {
+                    return Collections.emptyList();
+                }
+                start++;
+                content = fetch(start);
+                remember(start, content);
+            }
+            return content;
+        }
+
+        @NonNull
+        private List<T> fetch(int page) {
+            if (page == 0) {
+                return getter.apply(PageRequest.of(0, pageSize, getSort())).getContent();
+            }
+            return (ascending ? ascendingSeeker : descendingSeeker).apply(boundaries.get(page), PageRequest.of(0, pageSize));
+        }
+
+        private void remember(int page, @NonNull List<T> content) {
+            if (content.size() == pageSize) {
+                boundaries.put(page + 1, content.get(content.size() - 1));
+            }
+        }
+
+        /**
+         * @return the order of the seek queries, ties are broken by id
+         */
+        @NonNull
+        private Sort getSort() {
+            return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property, Keyset.ID);
+        }
+    }
+
+    /**
+     * Keeps the recently used pages of the current sort order. Pages are {@link FutureTask}s, which run only once:
+     * a prefetch still waiting for the executor is run by the caller instead, one which is already running is waited for
+     */
+    private class PageCache {
+        private static final int MAX_PAGES = 16;
+        private final Map<Integer, FutureTask<List<T>>> pages;
+        @Nullable private Sort sort;
+
+        PageCache() {
+            this.pages = new LinkedHashMap<Integer, FutureTask<List<T>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, FutureTask<List<T>>> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+        }
+
+        @NonNull
+        List<T> get(@NonNull Sort sort, int page) {
+            FutureTask<List<T>> task;
+            boolean prefetched;
+            synchronized (this) {
+                if (!sort.equals(this.sort)) {
+                    pages.clear();
+                    this.sort = sort;
+                }
+                task = pages.get(page);
+                prefetched = task != null;
+                if (!prefetched) {
+                    task = new FutureTask<>(() -> load(sort, page));
+                    pages.put(page, task);
+                }
+            }
+            task.run();
+            try {
+                return task.get();
+            } catch (ExecutionException e) {
+                synchronized (this) {
+                    pages.remove(page, task);
+                }
+                if (!prefetched && e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                //failed in the background, try again
+                return load(sort, page);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void prefetch(@NonNull Sort sort, int page) {
+            FutureTask<List<T>> task = new FutureTask<>(() -> load(sort, page));
+            synchronized (this) {
+                if (!sort.equals(this.sort) || pages.containsKey(page)) {
+                    return;
+                }
+                pages.put(page, task);
+            }
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ignored) {
+                //the executor is busy, the page is loaded when it is requested
+            }
+        }
+
+        synchronized void clear() {
+            pages.clear();
+            sort = null;
+        }
+    }
+
+    /**
+     * Queries which continue after a given row in the order of a property, used instead of offsets when the grid is sorted by that property only
+     *
+     * @param <P> the parameter of the provider
+     * @param <T> the row type
+     */
+    public static class Keyset<P, T> {
+        public static final String ID = "id";
+        @NonNull private final String property;
+        @NonNull private final Seeker<P, T> ascending;
+        @NonNull private final Seeker<P, T> descending;
+
+        /**
+         * @param property the sort property, rows with an equal value are ordered by {@link #ID}
+         * @param ascending returns the rows after the given row in ascending order
+         * @param descending returns the rows after the given row in descending order
+         */
+        public Keyset(@NonNull String property, @NonNull Seeker<P, T> ascending, @NonNull Seeker<P, T> descending) {
+            this.property = property;
+            this.ascending = ascending;
+            this.descending = descending;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Seeker<P, T> {
+        @NonNull
+        List<T> seek(P parameter, @NonNull T after, @NonNull Pageable pageable);
     }
 
     @Component
     public static class Factory {
         private final AcraConfiguration configuration;
+        private final Executor executor;
 
+        /**
+         * Getters and counters may depend on the current user, so tasks run with the security context of the thread which schedules them.
+         * Executor threads have no Vaadin session, so their own context would be empty.
+         */
         @Autowired
-        public Factory(AcraConfiguration configuration) {
+        public Factory(AcraConfiguration configuration, @Qualifier("dataProviderExecutor") TaskExecutor executor) {
             this.configuration = configuration;
+            this.executor = new DelegatingSecurityContextExecutor(executor);
         }
 
         public <P, T> BufferedDataProvider<T> create(P parameter, BiFunction<P, Pageable, Slice<T>> getter, Function<P, Integer> counter) {
-            return new BufferedDataProvider<>(configuration.getPaginationSize(), pageable -> getter.apply(parameter, pageable), () -> counter.apply(parameter));
+            return new BufferedDataProvider<>(configuration.getPaginationSize(), getCountTimeToLive(), pageable -> getter.apply(parameter, pageable),
+                    () -> counter.apply(parameter), null, null, null, null, executor);
+        }
+
+        public <P, T> BufferedDataProvider<T> create(P parameter, BiFunction<P, Pageable, Slice<T>> getter, Function<P, Integer> counter, Keyset<P, T> keyset) {
+            return create(parameter, getter, counter, keyset, null);
+        }
+
+        /**
+         * @param maintainedCounter returns the count from a counter which is updated together with the rows. The grid is sized by it instead of the counter,
+         *                          so it must only be given for views which are not filtered beyond what the counter covers.
+         */
+        public <P, T> BufferedDataProvider<T> create(P parameter, BiFunction<P, Pageable, Slice<T>> getter, Function<P, Integer> counter, Keyset<P, T> keyset,
+                @Nullable ToLongFunction<P> maintainedCounter) {
+            return new BufferedDataProvider<>(configuration.getPaginationSize(), getCountTimeToLive(), pageable -> getter.apply(parameter, pageable),
+                    () -> counter.apply(parameter), keyset.property, (after, pageable) -> keyset.ascending.seek(parameter, after, pageable),
+                    (after, pageable) -> keyset.descending.seek(parameter, after, pageable),
+                    maintainedCounter != null ? () -> (int) Math.min(maintainedCounter.applyAsLong(parameter), Integer.MAX_VALUE) : null, executor);
+        }
+
+        private long getCountTimeToLive() {
+            return TimeUnit.SECONDS.toMillis(configuration.getCountTimeToLive());
         }
     }
 }
@@ -0,0 +1,87 @@
+package com.faendir.acra.util;
+
+import org.springframework.lang.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses report content with deflate and a preset dictionary of strings common to all ACRA reports.
+ * The first byte of compressed data identifies the dictionary, so it can be replaced without breaking existing data.
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public final class Compression {
+    private static final byte VERSION = 1;
+    /**
+     * deflate prefers matches close to the data, so the most frequent strings go last.
+     * Data compressed with a dictionary can only be read with the exact same bytes, so this must never change. A new dictionary needs a new {@link #VERSION}.
+     */
+    static final byte[] DICTIONARY = ("java.lang.RuntimeException: java.lang.IllegalStateException: java.lang.NullPointerException: "
+                                      + "Caused by: \\n\\tat java.lang.reflect.Method.invoke(Native Method)\\n\\tat com.android.internal.os.ZygoteInit.main(ZygoteInit.java:"
+                                      + "\\n\\tat android.os.Looper.loop(Looper.java:\\n\\tat android.os.Handler.dispatchMessage(Handler.java:"
+                                      + "\\n\\tat android.app.ActivityThread.main(ActivityThread.java:"
+                                      + "\\n\\tat android.view.View.performClick(View.java:\\n\\tat android.true,\"false,\"=true\\n=false\\n"
+                                      + "\"REPORT_ID\":\"APP_VERSION_CODE\":\"APP_VERSION_NAME\":\"PACKAGE_NAME\":\"FILE_PATH\":\"PHONE_MODEL\":\"BRAND\":\"PRODUCT\":"
+                                      + "\"ANDROID_VERSION\":\"BUILD\":\"TOTAL_MEM_SIZE\":\"AVAILABLE_MEM_SIZE\":\"BUILD_CONFIG\":\"CUSTOM_DATA\":\"STACK_TRACE\":"
+                                      + "\"STACK_TRACE_HASH\":\"INITIAL_CONFIGURATION\":\"CRASH_CONFIGURATION\":\"DISPLAY\":\"USER_COMMENT\":\"USER_APP_START_DATE\":"
+                                      + "\"USER_CRASH_DATE\":\"DUMPSYS_MEMINFO\":\"DROPBOX\":\"LOGCAT\":\"EVENTSLOG\":\"RADIOLOG\":\"IS_SILENT\":\"DEVICE_ID\":"
+                                      + "\"INSTALLATION_ID\":\"USER_EMAIL\":\"DEVICE_FEATURES\":\"ENVIRONMENT\":\"SETTINGS_SYSTEM\":\"SETTINGS_SECURE\":"
+                                      + "\"SETTINGS_GLOBAL\":\"SHARED_PREFERENCES\":\"APPLICATION_LOG\":\"MEDIA_CODEC_LIST\":\"THREAD_DETAILS\":\"USER_IP\":"
+                                      + "\\n\\tat java.lang.\\n\\tat android.\",\"").getBytes(StandardCharsets.UTF_8);
+
+    private Compression() {
+    }
+
+    @NonNull
+    public static byte[] compress(@NonNull byte[] data) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 16);
+            out.write(VERSION);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @NonNull
+    public static byte[] decompress(@NonNull byte[] data) {
+        if (data.length == 0 || data[0] != VERSION) {
+            throw new IllegalArgumentException("Unknown compression format");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (!inflater.finished() && inflater.needsInput()) {
+                        throw new IllegalArgumentException("Truncated compressed data");
+                    }
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
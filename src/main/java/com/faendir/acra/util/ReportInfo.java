@@ -0,0 +1,142 @@
+package com.faendir.acra.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.acra.ReportField;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The indexed fields of a report, extracted in a single streaming pass over the raw JSON without building a DOM
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class ReportInfo {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Map<String, ReportField> FIELDS = EnumSet.of(ReportField.REPORT_ID, ReportField.USER_CRASH_DATE, ReportField.STACK_TRACE,
+            ReportField.APP_VERSION_CODE, ReportField.APP_VERSION_NAME, ReportField.USER_EMAIL, ReportField.USER_COMMENT, ReportField.ANDROID_VERSION,
+            ReportField.PHONE_MODEL).stream().collect(Collectors.toMap(Enum::name, Function.identity()));
+    private String id = "";
+    private Date date;
+    private String stacktrace = "";
+    private int versionCode;
+    private String versionName = "";
+    private String userEmail = "";
+    private String userComment = "";
+    private String androidVersion = "";
+    private String phoneModel = "";
+
+    private ReportInfo() {
+    }
+
+    /**
+     * @param content the raw report JSON
+     * @return the extracted fields. Missing fields are empty, as with {@link org.json.JSONObject#optString(String)}
+     * @throws IOException if the content is not a valid JSON object
+     */
+    @NonNull
+    public static ReportInfo parse(@NonNull byte[] content) throws IOException {
+        ReportInfo info = new ReportInfo();
+        String date = "";
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Report is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                ReportField field = FIELDS.get(parser.getCurrentName());
+                parser.nextToken();
+                if (field == null || !parser.currentToken().isScalarValue()) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case REPORT_ID:
+                        info.id = parser.getValueAsString("");
+                        break;
+                    case USER_CRASH_DATE:
+                        date = parser.getValueAsString("");
+                        break;
+                    case STACK_TRACE:
+                        info.stacktrace = parser.getValueAsString("");
+                        break;
+                    case APP_VERSION_CODE:
+                        info.versionCode = parser.getValueAsInt(0);
+                        break;
+                    case APP_VERSION_NAME:
+                        info.versionName = parser.getValueAsString("");
+                        break;
+                    case USER_EMAIL:
+                        info.userEmail = parser.getValueAsString("");
+                        break;
+                    case USER_COMMENT:
+                        info.userComment = parser.getValueAsString("");
+                        break;
+                    case ANDROID_VERSION:
+                        info.androidVersion = parser.getValueAsString("");
+                        break;
+                    case PHONE_MODEL:
+                        info.phoneModel = parser.getValueAsString("");
+                        break;
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, "Unexpected end of report");
+            }
+        }
+        info.date = Utils.getDateFromString(date);
+        return info;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public Date getDate() {
+        return date;
+    }
+
+    @NonNull
+    public String getStacktrace() {
+        return stacktrace;
+    }
+
+    public int getVersionCode() {
+        return versionCode;
+    }
+
+    @NonNull
+    public String getVersionName() {
+        return versionName;
+    }
+
+    @NonNull
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    @NonNull
+    public String getUserComment() {
+        return userComment;
+    }
+
+    @NonNull
+    public String getAndroidVersion() {
+        return androidVersion;
+    }
+
+    @NonNull
+    public String getPhoneModel() {
+        return phoneModel;
+    }
+}
@@ -1,42 +1,95 @@
 package com.faendir.acra.util;
 
-import com.github.artyomcool.retrace.Retrace;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.springframework.lang.NonNull;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * @author Lukas
  * @since 13.05.2017
  */
 public final class Utils {
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", Locale.ENGLISH);
-    private static final Log log = LogFactory.getLog(Utils.class);
+    /**
+     * ACRA formats dates as yyyy-MM-dd'T'HH:mm:ss.SSSXXX, which is a subset of ISO-8601. Unlike SimpleDateFormat, this formatter is immutable and thread-safe.
+     */
+    private static final DateTimeFormatter dateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final Pattern HEADER = Pattern.compile("^((?:Caused by|Suppressed): )?([\\w$.]+)(?::.*)?$");
+    private static final Pattern LINE_NUMBER = Pattern.compile(":\\d+\\)$");
+    private static final Pattern LAMBDA = Pattern.compile("\\$\\$Lambda\\$\\d+/(?:0x)?[0-9a-fA-F]+");
+    private static final Pattern ADDRESS = Pattern.compile("@[0-9a-fA-F]{4,}");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
     @NonNull
     public static Date getDateFromString(@NonNull String s) {
         try {
-            return dateFormat.parse(s);
-        } catch (ParseException e) {
+            return Date.from(dateFormat.parse(s, Instant::from));
+        } catch (DateTimeParseException e) {
             return new Date();
         }
     }
 
-    public static String retrace(@NonNull String stacktrace, @NonNull String mappings) {
-        try (BufferedReader mappingsReader = new BufferedReader(new StringReader(mappings));
-             BufferedReader stacktraceReader = new BufferedReader(new StringReader(stacktrace))) {
-            return new Retrace(mappingsReader).stackTrace(stacktraceReader);
-        } catch (IOException e) {
-            log.error("Failed to retrace stacktrace", e);
-            return stacktrace;
+    /**
+     * @return the day of the date in the server time zone, which is also the day MySQL computes for stored dates
+     */
+    @NonNull
+    public static Date getDay(@NonNull Date date) {
+        return java.sql.Date.valueOf(date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+    }
+
+    /**
+     * @return the start of the hour of the date in the server time zone, which is also the hour MySQL computes for stored dates
+     */
+    @NonNull
+    public static Date getHour(@NonNull Date date) {
+        return Date.from(date.toInstant().atZone(ZoneId.systemDefault()).truncatedTo(ChronoUnit.HOURS).toInstant());
+    }
+
+    /**
+     * Computes a fingerprint which is equal for stacktraces that only differ in line numbers, exception messages or object addresses.
+     *
+     * @param stacktrace the stacktrace
+     * @return a hex encoded SHA-256 hash of the normalized stacktrace
+     */
+    @NonNull
+    public static String getFingerprint(@NonNull String stacktrace) {
+        StringBuilder normalized = new StringBuilder();
+        boolean first = true;
+        for (String line : stacktrace.split("\n")) {
+            line = line.trim();
+            if (line.startsWith("at ")) {
+                line = LINE_NUMBER.matcher(line).replaceFirst(")");
+                line = LAMBDA.matcher(line).replaceAll("\\$\\$Lambda\\$");
+                normalized.append(ADDRESS.matcher(line).replaceAll("")).append('\n');
+            } else if (first || line.startsWith("Caused by: ") || line.startsWith("Suppressed: ")) {
+                Matcher matcher = HEADER.matcher(line);
+                if (matcher.matches()) {
+                    if (matcher.group(1) != null) normalized.append(matcher.group(1));
+                    normalized.append(matcher.group(2)).append('\n');
+                }
+            }
+            //anything else is either a "... n more" line or part of a multi-line message
+            if (!line.isEmpty()) first = false;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalized.toString().getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+                hex[2 * i + 1] = HEX[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
         }
     }
 }
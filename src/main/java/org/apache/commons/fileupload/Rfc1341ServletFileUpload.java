@@ -21,6 +21,13 @@ import static java.lang.String.format;
  * @since 18.05.2017
  */
 public class Rfc1341ServletFileUpload extends ServletFileUpload {
+    /**
+     * Creates an upload which can only be read through {@link #getItemIterator(RequestContext)}
+     */
+    public Rfc1341ServletFileUpload() {
+        super();
+    }
+
     public Rfc1341ServletFileUpload(@NonNull FileItemFactory fileItemFactory) {
         super(fileItemFactory);
     }
@@ -0,0 +1,133 @@
+window.com_faendir_acra_ui_view_base_Chart = function () {
+    var SVG = "http://www.w3.org/2000/svg";
+    var WIDTH = 600;
+    var HEIGHT = 400;
+    var COLORS = ["#197de1", "#ed473b", "#2dbd6d", "#f5a623", "#8e44ad", "#16a085", "#e67e22", "#34495e", "#c0392b", "#7f8c8d"];
+    var element = this.getElement();
+    var pending = null;
+
+    function create(name, attributes, text) {
+        var node = document.createElementNS(SVG, name);
+        for (var key in attributes) {
+            if (attributes.hasOwnProperty(key)) {
+                node.setAttribute(key, attributes[key]);
+            }
+        }
+        if (text !== undefined) {
+            node.textContent = text;
+        }
+        return node;
+    }
+
+    function tooltip(node, text) {
+        node.appendChild(create("title", {}, text));
+        return node;
+    }
+
+    function drawBars(svg, labels, values) {
+        var left = 50, right = 10, top = 30, bottom = 40;
+        var max = Math.max.apply(null, values.concat([1]));
+        var step = Math.pow(10, Math.floor(Math.log(max) / Math.LN10));
+        if (max / step < 4) {
+            step = Math.max(1, step / 2);
+        }
+        var width = (WIDTH - left - right) / Math.max(values.length, 1);
+        var height = HEIGHT - top - bottom;
+        for (var tick = 0; tick <= max; tick += step) {
+            var y = top + height - tick / max * height;
+            svg.appendChild(create("line", {x1: left, x2: WIDTH - right, y1: y, y2: y, stroke: "#ddd"}));
+            svg.appendChild(create("text", {x: left - 5, y: y + 4, "text-anchor": "end", "font-size": 11}, String(tick)));
+        }
+        var labelEvery = Math.ceil(values.length / 10);
+        values.forEach(function (value, i) {
+            var barHeight = value / max * height;
+            var x = left + i * width;
+            svg.appendChild(tooltip(create("rect", {x: x + width * 0.1, y: top + height - barHeight, width: width * 0.8, height: barHeight, fill: COLORS[0]}),
+                labels[i] + ": " + value));
+            if (i % labelEvery === 0) {
+                svg.appendChild(create("text", {x: x + width / 2, y: HEIGHT - bottom + 15, "text-anchor": "middle", "font-size": 11}, labels[i]));
+            }
+        });
+    }
+
+    function message(svg, text) {
+        svg.appendChild(create("text", {x: WIDTH / 2, y: HEIGHT / 2, "text-anchor": "middle", "font-size": 13, fill: "#888"}, text));
+    }
+
+    function drawPie(svg, labels, values) {
+        var total = values.reduce(function (a, b) {
+            return a + b;
+        }, 0);
+        if (total === 0) {
+            message(svg, "No reports");
+            return;
+        }
+        var cx = 180, cy = 215, r = 150;
+        var angle = -Math.PI / 2;
+        values.forEach(function (value, i) {
+            var color = COLORS[i % COLORS.length];
+            var text = labels[i] + " (" + Math.round(value / total * 100) + "%)";
+            if (value === total) {
+                svg.appendChild(tooltip(create("circle", {cx: cx, cy: cy, r: r, fill: color}), text));
+            } else if (value > 0) {
+                var end = angle + value / total * 2 * Math.PI;
+                var path = "M" + cx + "," + cy + " L" + (cx + r * Math.cos(angle)) + "," + (cy + r * Math.sin(angle))
+                           + " A" + r + "," + r + " 0 " + (end - angle > Math.PI ? 1 : 0) + ",1 " + (cx + r * Math.cos(end)) + "," + (cy + r * Math.sin(end)) + " Z";
+                svg.appendChild(tooltip(create("path", {d: path, fill: color, stroke: "#fafafa"}), text));
+                angle = end;
+            }
+            svg.appendChild(create("rect", {x: 360, y: 60 + i * 20, width: 12, height: 12, fill: color}));
+            svg.appendChild(create("text", {x: 378, y: 71 + i * 20, "font-size": 12}, text));
+        });
+    }
+
+    function draw(type, data, error) {
+        while (element.firstChild) {
+            element.removeChild(element.firstChild);
+        }
+        var svg = create("svg", {viewBox: "0 0 " + WIDTH + " " + HEIGHT, width: "100%", height: "100%", "font-family": "sans-serif"});
+        if (error) {
+            message(svg, error);
+        } else {
+            svg.appendChild(create("text", {x: WIDTH / 2, y: 18, "text-anchor": "middle", "font-size": 14}, data.title || ""));
+            if (type === "pie") {
+                drawPie(svg, data.labels, data.values);
+            } else {
+                drawBars(svg, data.labels, data.values);
+            }
+        }
+        element.appendChild(svg);
+    }
+
+    this.onStateChange = function () {
+        var state = this.getState();
+        if (pending) {
+            pending.abort();
+        }
+        if (!state.source) {
+            return;
+        }
+        var request = new XMLHttpRequest();
+        pending = request;
+        request.open("GET", state.source);
+        request.setRequestHeader("Accept", "application/json");
+        request.onload = function () {
+            if (pending !== request) {
+                return;
+            }
+            pending = null;
+            if (request.status === 200) {
+                draw(state.type, JSON.parse(request.responseText));
+            } else {
+                draw(state.type, null, "Statistics are not available");
+            }
+        };
+        request.onerror = function () {
+            if (pending === request) {
+                pending = null;
+                draw(state.type, null, "Statistics are not available");
+            }
+        };
+        request.send();
+    };
+};
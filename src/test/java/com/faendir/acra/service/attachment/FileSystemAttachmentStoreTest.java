@@ -0,0 +1,130 @@
+package com.faendir.acra.service.attachment;
+
+import com.faendir.acra.config.AcraConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class FileSystemAttachmentStoreTest {
+    private static final byte[] CONTENT = "logcat output".getBytes(StandardCharsets.UTF_8);
+    private Path root;
+    private FileSystemAttachmentStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("acra-attachments");
+        AcraConfiguration.AttachmentStore config = new AcraConfiguration.AttachmentStore();
+        config.setDirectory(root.toString());
+        AcraConfiguration configuration = new AcraConfiguration();
+        configuration.setAttachmentStore(config);
+        store = new FileSystemAttachmentStore(configuration);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void roundTripsContent() throws IOException {
+        byte[] content = new byte[200000];
+        new Random(42).nextBytes(content);
+        String hash = store.save(new ByteArrayInputStream(content));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(content.length, store.transferTo(hash, Channels.newChannel(out)));
+        assertArrayEquals(content, out.toByteArray());
+    }
+
+    @Test
+    public void addressesContentBySha256() throws IOException {
+        assertEquals("0746fccf0ec210f6a63f5d80ef2759923044aacd78bcbd3cba1c8239356e0ab1", store.save(new ByteArrayInputStream(CONTENT)));
+        assertEquals(store.save(new ByteArrayInputStream(CONTENT)), store.save(new ByteArrayInputStream(CONTENT)));
+        assertNotEquals(store.save(new ByteArrayInputStream(CONTENT)), store.save(new ByteArrayInputStream(new byte[0])));
+        assertEquals(2, list(Instant.now().plusSeconds(60)).size());
+    }
+
+    @Test
+    public void leavesNoTemporaryFiles() throws IOException {
+        store.save(new ByteArrayInputStream(CONTENT));
+        store.save(new ByteArrayInputStream(CONTENT));
+        try (Stream<Path> paths = Files.walk(root)) {
+            assertEquals(1, paths.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void listsOnlyOldContent() throws IOException {
+        String old = save(CONTENT, Instant.now().minus(2, ChronoUnit.HOURS));
+        store.save(new ByteArrayInputStream(new byte[0]));
+        assertEquals(Collections.singletonList(old), list(Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    public void deletesOldContent() throws IOException {
+        String hash = save(CONTENT, Instant.now().minus(2, ChronoUnit.HOURS));
+        assertTrue(store.delete(hash, Instant.now().minus(1, ChronoUnit.HOURS)));
+        assertTrue(list(Instant.now().plusSeconds(60)).isEmpty());
+        assertFalse(store.delete(hash, Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    public void keepsContentSavedAgain() throws IOException {
+        Instant before = Instant.now().minus(1, ChronoUnit.HOURS);
+        String hash = save(CONTENT, Instant.now().minus(2, ChronoUnit.HOURS));
+        assertEquals(Collections.singletonList(hash), list(before));
+        //saved again after the collector listed it, e.g. for a new report which is not committed yet
+        store.save(new ByteArrayInputStream(CONTENT));
+        assertFalse(store.delete(hash, before));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.transferTo(hash, Channels.newChannel(out));
+        assertArrayEquals(CONTENT, out.toByteArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidHashes() throws IOException {
+        store.transferTo("../../etc/passwd", Channels.newChannel(new ByteArrayOutputStream()));
+    }
+
+    private String save(byte[] content, Instant modified) throws IOException {
+        String hash = store.save(new ByteArrayInputStream(content));
+        Files.setLastModifiedTime(root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash), FileTime.from(modified));
+        return hash;
+    }
+
+    private List<String> list(Instant before) throws IOException {
+        try (Stream<String> hashes = store.listBefore(before)) {
+            return hashes.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.faendir.acra.service.retrace;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compiles a mapping and reads it back through {@link MappingIndex}
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class MappingIndexTest {
+    private static final String MAPPING = "# compiler: R8\n"
+                                          + "com.example.MainActivity -> a.a:\n"
+                                          + "# {\"id\":\"sourceFile\",\"fileName\":\"MainActivity.kt\"}\n"
+                                          + "    int count -> a\n"
+                                          + "    1:3:void onCreate(android.os.Bundle):10:12 -> onCreate\n"
+                                          + "    4:4:void com.example.Helper.inlined():20:20 -> b\n"
+                                          + "    4:4:void helper():30 -> b\n"
+                                          + "    5:6:void other(int):40:41 -> b\n"
+                                          + "com.example.Helper -> a.b:\n"
+                                          + "    void run() -> a\n"
+                                          + "com.example.Main$Inner -> a.c:\n"
+                                          + "    void run() -> a\n";
+    private MappingIndex index;
+
+    @Before
+    public void compile() throws IOException {
+        MappingIndexCompiler compiler = new MappingIndexCompiler();
+        compiler.parse(new StringReader(MAPPING));
+        assertFalse(compiler.isEmpty());
+        index = new MappingIndex(compiler.compile());
+    }
+
+    @Test
+    public void resolvesClasses() {
+        assertEquals("com.example.MainActivity", index.getOriginalClass("a.a"));
+        assertEquals("com.example.Helper", index.getOriginalClass("a.b"));
+        assertEquals("com.example.Main$Inner", index.getOriginalClass("a.c"));
+        assertNull(index.getOriginalClass("a.d"));
+        assertNull(index.getOriginalClass("com.example.MainActivity"));
+    }
+
+    @Test
+    public void mapsLineRanges() {
+        assertEquals("com.example.MainActivity.onCreate(MainActivity.kt):11", format(index.getOriginalFrames("a.a", "onCreate", 2)));
+        assertEquals("com.example.MainActivity.other(MainActivity.kt):41", format(index.getOriginalFrames("a.a", "b", 6)));
+    }
+
+    @Test
+    public void resolvesInlinedFramesInnermostFirst() {
+        assertEquals("com.example.Helper.inlined(null):20\ncom.example.MainActivity.helper(MainActivity.kt):30", format(index.getOriginalFrames("a.a", "b", 4)));
+    }
+
+    @Test
+    public void resolvesAmbiguousFramesToAllCandidates() {
+        assertEquals("com.example.Helper.inlined(null):-1\ncom.example.MainActivity.helper(MainActivity.kt):-1\ncom.example.MainActivity.other(MainActivity.kt):-1",
+                format(index.getOriginalFrames("a.a", "b", -1)));
+    }
+
+    @Test
+    public void resolvesMembersWithoutLineRanges() {
+        assertEquals("com.example.Helper.run(null):7", format(index.getOriginalFrames("a.b", "a", 7)));
+    }
+
+    @Test
+    public void dropsFields() {
+        assertTrue(index.getOriginalFrames("a.a", "a", -1).isEmpty());
+    }
+
+    @Test
+    public void ignoresUnknownFrames() {
+        assertTrue(index.getOriginalFrames("a.d", "a", 1).isEmpty());
+        assertTrue(index.getOriginalFrames("a.a", "zz", 1).isEmpty());
+    }
+
+    @Test
+    public void retracesStacktraces() {
+        String stacktrace = "java.lang.IllegalStateException: a.b failed\n"
+                            + "\tat a.a.b(Unknown Source:4)\n"
+                            + "\tat a.a.onCreate(Unknown Source:1)\n"
+                            + "\tat a.c.a(Native Method)\n"
+                            + "\tat android.app.Activity.performCreate(Activity.java:6679)";
+        assertEquals("java.lang.IllegalStateException: com.example.Helper failed\n"
+                     + "\tat com.example.Helper.inlined(Helper.java:20)\n"
+                     + "\tat com.example.MainActivity.helper(MainActivity.kt:30)\n"
+                     + "\tat com.example.MainActivity.onCreate(MainActivity.kt:10)\n"
+                     + "\tat com.example.Main$Inner.run(Native Method)\n"
+                     + "\tat android.app.Activity.performCreate(Activity.java:6679)", Retracer.retrace(stacktrace, index));
+    }
+
+    private static String format(List<MappingIndex.Frame> frames) {
+        return frames.stream()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getSourceFile() + "):" + frame.getLine())
+                .collect(Collectors.joining("\n"));
+    }
+}
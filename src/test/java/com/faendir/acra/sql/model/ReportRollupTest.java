@@ -0,0 +1,59 @@
+package com.faendir.acra.sql.model;
+
+import com.faendir.acra.util.ReportInfo;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Keys computed in Java for new reports have to match the keys computed by the SQL expressions for existing reports, or counts are split
+ *
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class ReportRollupTest {
+    private static final Bug BUG = new Bug(new App("app", new User("reporter", "", Collections.emptyList())), "", "", 1, new Date());
+
+    @Test
+    public void usesReportFields() throws IOException {
+        Report report = report("\"ANDROID_VERSION\":\"8.1.0\",\"PHONE_MODEL\":\"Pixel\",\"APP_VERSION_CODE\":42");
+        assertEquals("8.1.0", ReportRollup.Dimension.ANDROID_VERSION.getKey(7, report));
+        assertEquals("Pixel", ReportRollup.Dimension.PHONE_MODEL.getKey(7, report));
+        assertEquals("42", ReportRollup.Dimension.VERSION_CODE.getKey(7, report));
+    }
+
+    @Test
+    public void formatsBugDaysInUtc() throws IOException {
+        assertEquals("7/2017-12-11", ReportRollup.Dimension.BUG_DAY.getKey(7, report("\"USER_CRASH_DATE\":\"2017-12-12T00:30:00.000+01:00\"")));
+        assertEquals("7/2017-12-12", ReportRollup.Dimension.BUG_DAY.getKey(7, report("\"USER_CRASH_DATE\":\"2017-12-11T23:30:00.000-01:00\"")));
+        assertEquals("7/2017-12-11", ReportRollup.Dimension.BUG_DAY.getKey(7, report("\"USER_CRASH_DATE\":\"2017-12-11T23:59:59.999Z\"")));
+        assertTrue(ReportRollup.Dimension.BUG_DAY.getSqlExpression().contains("convert_tz(report.date, @@session.time_zone, '+00:00')"));
+    }
+
+    @Test
+    public void truncatesLikeMysql() throws IOException {
+        String model = String.join("", Collections.nCopies(ReportRollup.KEY_LENGTH + 10, "x"));
+        assertEquals(ReportRollup.KEY_LENGTH, ReportRollup.Dimension.PHONE_MODEL.getKey(7, report("\"PHONE_MODEL\":\"" + model + "\"")).length());
+        for (ReportRollup.Dimension dimension : ReportRollup.Dimension.values()) {
+            assertTrue(dimension.getSqlExpression(), dimension.getSqlExpression().startsWith("left(coalesce("));
+            assertTrue(dimension.getSqlExpression(), dimension.getSqlExpression().endsWith(", ''), " + ReportRollup.KEY_LENGTH + ")"));
+        }
+    }
+
+    @Test
+    public void usesEmptyKeysForMissingValues() throws IOException {
+        Report report = report("\"REPORT_ID\":\"a1b2\"");
+        assertEquals("", ReportRollup.Dimension.ANDROID_VERSION.getKey(7, report));
+        assertEquals("", ReportRollup.Dimension.PHONE_MODEL.getKey(7, report));
+    }
+
+    private static Report report(String fields) throws IOException {
+        return new Report(BUG, ReportInfo.parse(("{" + fields + "}").getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.faendir.acra.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class CompressionTest {
+    private static final byte[] REPORT = ("{\"REPORT_ID\":\"a1b2\",\"STACK_TRACE\":\"java.lang.NullPointerException: \\n\\tat android.os.Looper.loop(Looper.java:154)"
+                                          + "\\n\\tat android.app.ActivityThread.main(ActivityThread.java:6119)\\n\\tat java.lang.reflect.Method.invoke(Native Method)\","
+                                          + "\"PHONE_MODEL\":\"Pixel\",\"ANDROID_VERSION\":\"8.1.0\",\"IS_SILENT\":false}").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Stored content can only be decompressed with the dictionary it was compressed with
+     */
+    @Test
+    public void keepsDictionaryOfVersion1() {
+        CRC32 crc = new CRC32();
+        crc.update(Compression.DICTIONARY);
+        assertEquals(1134, Compression.DICTIONARY.length);
+        assertEquals(0xa9d4c3d5L, crc.getValue());
+    }
+
+    @Test
+    public void roundTripsReports() {
+        assertArrayEquals(REPORT, Compression.decompress(Compression.compress(REPORT)));
+    }
+
+    @Test
+    public void roundTripsEmptyContent() {
+        assertArrayEquals(new byte[0], Compression.decompress(Compression.compress(new byte[0])));
+    }
+
+    @Test
+    public void roundTripsLargeIncompressibleContent() {
+        byte[] data = new byte[100000];
+        new Random(42).nextBytes(data);
+        assertArrayEquals(data, Compression.decompress(Compression.compress(data)));
+    }
+
+    @Test
+    public void shrinksReports() {
+        assertTrue(Compression.compress(REPORT).length < REPORT.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUncompressedContent() {
+        Compression.decompress(REPORT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedContent() {
+        byte[] compressed = Compression.compress(REPORT);
+        Compression.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyContent() {
+        Compression.decompress(new byte[0]);
+    }
+}
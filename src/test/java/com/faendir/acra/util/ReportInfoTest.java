@@ -0,0 +1,65 @@
+package com.faendir.acra.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class ReportInfoTest {
+    @Test
+    public void extractsIndexedFields() throws IOException {
+        ReportInfo info = parse("{\"REPORT_ID\":\"a1b2\",\"USER_CRASH_DATE\":\"2017-12-11T17:32:05.123+01:00\","
+                                + "\"STACK_TRACE\":\"java.lang.Exception\\n\\tat Foo.bar(Foo.java:1)\",\"APP_VERSION_CODE\":42,\"APP_VERSION_NAME\":\"1.2\","
+                                + "\"USER_EMAIL\":\"a@b.c\",\"USER_COMMENT\":\"crashed\",\"ANDROID_VERSION\":\"8.1.0\",\"PHONE_MODEL\":\"Pixel\"}");
+        assertEquals("a1b2", info.getId());
+        assertEquals(Instant.parse("2017-12-11T16:32:05.123Z"), info.getDate().toInstant());
+        assertEquals("java.lang.Exception\n\tat Foo.bar(Foo.java:1)", info.getStacktrace());
+        assertEquals(42, info.getVersionCode());
+        assertEquals("1.2", info.getVersionName());
+        assertEquals("a@b.c", info.getUserEmail());
+        assertEquals("crashed", info.getUserComment());
+        assertEquals("8.1.0", info.getAndroidVersion());
+        assertEquals("Pixel", info.getPhoneModel());
+    }
+
+    @Test
+    public void skipsNestedValues() throws IOException {
+        ReportInfo info = parse("{\"BUILD\":{\"REPORT_ID\":\"nested\",\"LIST\":[1,{\"PHONE_MODEL\":\"nested\"}]},\"REPORT_ID\":\"a1b2\",\"PHONE_MODEL\":{\"x\":1}}");
+        assertEquals("a1b2", info.getId());
+        assertEquals("", info.getPhoneModel());
+    }
+
+    @Test
+    public void defaultsMissingFields() throws IOException {
+        ReportInfo info = parse("{\"REPORT_ID\":\"a1b2\"}");
+        assertEquals("", info.getStacktrace());
+        assertEquals(0, info.getVersionCode());
+        assertEquals("", info.getVersionName());
+    }
+
+    @Test
+    public void readsNumbersGivenAsStrings() throws IOException {
+        assertEquals(42, parse("{\"APP_VERSION_CODE\":\"42\"}").getVersionCode());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsArrays() throws IOException {
+        parse("[{\"REPORT_ID\":\"a1b2\"}]");
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedReports() throws IOException {
+        parse("{\"REPORT_ID\":\"a1b2\",\"STACK_TRACE\":");
+    }
+
+    private static ReportInfo parse(String json) throws IOException {
+        return ReportInfo.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
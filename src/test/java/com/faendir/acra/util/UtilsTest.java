@@ -0,0 +1,79 @@
+package com.faendir.acra.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @author Lukas
+ * @since 18.10.2026
+ */
+public class UtilsTest {
+    private static final String TRACE = "java.lang.IllegalStateException: Something went wrong\n"
+                                        + "\tat com.example.Foo.bar(Foo.java:42)\n"
+                                        + "\tat com.example.Foo.lambda$run$0(Foo.java:17)\n"
+                                        + "\tat com.example.Foo$$Lambda$12/1234567.run(Unknown Source)\n"
+                                        + "\tat android.os.Handler.handleCallback(Handler.java:751)\n"
+                                        + "Caused by: java.lang.NullPointerException: Attempt to invoke virtual method on a null object reference\n"
+                                        + "\tat com.example.Baz.qux(Baz.java:7)\n"
+                                        + "\t... 3 more\n";
+
+    @Test
+    public void ignoresLineNumbers() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("Foo.java:42", "Foo.java:44").replace("Handler.java:751", "Handler.java:739")));
+    }
+
+    @Test
+    public void ignoresMessages() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("Something went wrong", "Something else went wrong")
+                .replace("Attempt to invoke virtual method on a null object reference", "")));
+    }
+
+    @Test
+    public void ignoresMultiLineMessages() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("Something went wrong", "Something\nwent wrong")));
+    }
+
+    @Test
+    public void ignoresLambdaClassNames() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("$$Lambda$12/1234567", "$$Lambda$31/0x7654321")));
+    }
+
+    @Test
+    public void ignoresObjectAddresses() {
+        String trace = "java.lang.IllegalStateException\n\tat com.example.Foo@1a2b3c4d.bar(Foo.java:42)\n";
+        assertEquals(Utils.getFingerprint(trace), Utils.getFingerprint(trace.replace("1a2b3c4d", "5e6f7a8b")));
+    }
+
+    @Test
+    public void ignoresWhitespaceAndLineEndings() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("\t", "    ").replace("\n", "\r\n")));
+    }
+
+    @Test
+    public void ignoresMoreLines() {
+        assertEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("... 3 more", "... 5 more")));
+    }
+
+    @Test
+    public void distinguishesExceptionTypes() {
+        assertNotEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("IllegalStateException", "IllegalArgumentException")));
+    }
+
+    @Test
+    public void distinguishesFrames() {
+        assertNotEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("com.example.Foo.bar", "com.example.Foo.baz")));
+    }
+
+    @Test
+    public void distinguishesCauses() {
+        assertNotEquals(Utils.getFingerprint(TRACE), Utils.getFingerprint(TRACE.replace("Caused by: java.lang.NullPointerException", "Caused by: java.io.IOException")));
+    }
+
+    @Test
+    public void isHexEncodedSha256() {
+        assertEquals(64, Utils.getFingerprint(TRACE).length());
+        assertEquals("", Utils.getFingerprint(TRACE).replaceAll("[0-9a-f]", ""));
+    }
+}